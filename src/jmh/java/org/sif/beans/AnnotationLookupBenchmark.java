@@ -0,0 +1,52 @@
+package org.sif.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link AnnotationUtil} relation and field lookups, and the
+ * {@link PropertyKind} classification, for simple, relation, collection
+ * relation and nested properties of {@link Employee}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnnotationLookupBenchmark {
+
+	@Param({"name", "department", "friends", "department.name"})
+	public String property;
+
+	@Benchmark
+	public boolean fieldHasRelationAnnotation() throws Exception {
+		return AnnotationUtil.fieldHasRelationAnnotation(Employee.class, property);
+	}
+
+	@Benchmark
+	public Class<?> getFieldClass() {
+		return AnnotationUtil.getFieldClass(Employee.class, property);
+	}
+
+	@Benchmark
+	public Field findField() {
+		return FieldMetadata.of(Employee.class).findField(property);
+	}
+
+	@Benchmark
+	public PropertyKind propertyKind() {
+		return PropertyKind.of(Employee.class, property);
+	}
+}
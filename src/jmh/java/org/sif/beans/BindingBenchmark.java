@@ -0,0 +1,77 @@
+package org.sif.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BeanPropertiesSetter#setAllProperties(Object, Map)} on
+ * batches of {@link Employee} and {@link Department} parameter maps, through
+ * the factory setters and through the generated setters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingBenchmark {
+
+	@Param({"EMPLOYEE", "DEPARTMENT"})
+	public String shape;
+
+	@Param({"1", "100", "10000"})
+	public int batchSize;
+
+	@Param({"true", "false"})
+	public boolean generatedSetters;
+
+	private BeanPropertiesSetter<Object, Long> setter;
+
+	private List<Map<String, Object>> rows;
+
+	@Setup
+	public void setup() {
+		BeanPropertySetterFactory<Object, Long> factory = new BeanPropertySetterFactory<>();
+		factory.setSimplePropertySetter(new ConvertingPropertySetter<>());
+		setter = new BeanPropertiesSetter<>();
+		setter.setFactory(factory);
+		setter.setUseGeneratedSetters(generatedSetters);
+		rows = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("id", String.valueOf(i));
+			row.put("name", "Name " + i);
+			if ("EMPLOYEE".equals(shape)) {
+				row.put("age", String.valueOf(20 + i % 40));
+				row.put("employed", i % 2 == 0 ? "true" : "false");
+			}
+			rows.add(row);
+		}
+	}
+
+	@Benchmark
+	public void setAllProperties(Blackhole blackhole) {
+		boolean employee = "EMPLOYEE".equals(shape);
+		for (Map<String, Object> row : rows) {
+			Object bean = employee ? new Employee() : new Department();
+			setter.setAllProperties(bean, row);
+			blackhole.consume(bean);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package org.sif.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PropertyValueConverterUtil#valueListToCollection(Object, Class, Class)}
+ * converting comma separated values, string arrays and primitive arrays of
+ * the given size to lists and sets of longs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollectionConversionBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	public int size;
+
+	@Param({"COMMA_SEPARATED", "STRING_ARRAY", "LONG_ARRAY"})
+	public String input;
+
+	private PropertyValueConverterUtil<?> converterUtil;
+
+	private Object value;
+
+	@Setup
+	public void setup() {
+		converterUtil = new PropertyValueConverterUtil<>();
+		String[] strings = new String[size];
+		long[] longs = new long[size];
+		for (int i = 0; i < size; i++) {
+			strings[i] = String.valueOf(i * 7L);
+			longs[i] = i * 7L;
+		}
+		switch (input) {
+			case "COMMA_SEPARATED":
+				value = String.join(", ", strings);
+				break;
+			case "STRING_ARRAY":
+				value = strings;
+				break;
+			case "LONG_ARRAY":
+				value = longs;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown input: " + input);
+		}
+	}
+
+	@Benchmark
+	public Collection<?> toList() {
+		return converterUtil.valueListToCollection(value, List.class, Long.class);
+	}
+
+	@Benchmark
+	public Collection<?> toSet() {
+		return converterUtil.valueListToCollection(value, Set.class, Long.class);
+	}
+
+	@Benchmark
+	public int toLazyListAndReadOne() {
+		List<?> list = (List<?>) converterUtil.valueListToCollection(value, List.class, Long.class, true);
+		return list.size() + list.get(size / 2).hashCode();
+	}
+
+	@Benchmark
+	public long[] toLongArray() {
+		return converterUtil.toLongArray(value);
+	}
+}
@@ -0,0 +1,91 @@
+package org.sif.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PropertyValueConverterUtil#convert(Class, Object)} for each
+ * target type registered by {@link ConverterRegistry}, from strings of the
+ * given number of digits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversionBenchmark {
+
+	@Param({"Boolean", "Byte", "Short", "Integer", "Long", "Float", "Double", "SqlDate"})
+	public String targetType;
+
+	@Param({"1", "9"})
+	public int digits;
+
+	private PropertyValueConverterUtil<?> converterUtil;
+
+	private Class<?> type;
+
+	private String value;
+
+	@Setup
+	public void setup() {
+		converterUtil = new PropertyValueConverterUtil<>();
+		StringBuilder number = new StringBuilder();
+		for (int i = 0; i < digits; i++) {
+			number.append((char) ('1' + i % 9));
+		}
+		switch (targetType) {
+			case "Boolean":
+				type = Boolean.class;
+				value = "true";
+				break;
+			case "Byte":
+				type = Byte.class;
+				value = number.substring(0, Math.min(2, digits));
+				break;
+			case "Short":
+				type = Short.class;
+				value = number.substring(0, Math.min(4, digits));
+				break;
+			case "Integer":
+				type = Integer.class;
+				value = number.toString();
+				break;
+			case "Long":
+				type = Long.class;
+				value = number.toString();
+				break;
+			case "Float":
+				type = Float.class;
+				value = number + ".5";
+				break;
+			case "Double":
+				type = Double.class;
+				value = number + ".25";
+				break;
+			case "SqlDate":
+				type = java.sql.Date.class;
+				value = "2019-02-15";
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown target type: " + targetType);
+		}
+	}
+
+	@Benchmark
+	public Object convert() {
+		return converterUtil.convert(type, value);
+	}
+}
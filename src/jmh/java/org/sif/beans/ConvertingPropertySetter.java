@@ -0,0 +1,35 @@
+package org.sif.beans;
+
+/**
+ * The {@link PropertySetter} of the benchmarks: converts the value to the
+ * property type and sets it through the {@link PropertyAccessor} of the
+ * property. Failures are thrown, so they can't go unnoticed in the results.
+ *
+ * @param <T> the bean type
+ */
+final class ConvertingPropertySetter<T> implements PropertySetter<T, Long> {
+
+	private final PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+
+	@Override
+	public T setProperty(T bean, String property, Object value) {
+		PropertyAccessor accessor = writableAccessor(bean, property);
+		accessor.set(bean, converterUtil.convert(accessor.getType(), value));
+		return bean;
+	}
+
+	@Override
+	public T unsetProperty(T bean, String property, Object value) {
+		writableAccessor(bean, property).set(bean, null);
+		return bean;
+	}
+
+	private static PropertyAccessor writableAccessor(Object bean, String property) {
+		PropertyAccessor accessor = BeanIntrospection.forClass(bean.getClass()).getAccessor(property);
+		if (accessor == null || !accessor.isWritable()) {
+			throw new IllegalArgumentException("The property [" + property + "] of [" + bean.getClass()
+					+ "] can't be written");
+		}
+		return accessor;
+	}
+}
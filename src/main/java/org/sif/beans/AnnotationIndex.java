@@ -0,0 +1,163 @@
+package org.sif.beans;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import javax.persistence.Transient;
+import javax.persistence.Version;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the well known JPA annotations of the fields declared by a class,
+ * built once per class.
+ * <p>
+ * Each field is mapped to a {@link FieldAnnotations} holding a bitset of the
+ * {@link #KNOWN_ANNOTATIONS} it has, plus the annotation instances, so
+ * checking for one or several of them, e.g. for any relation annotation, is a
+ * single bit test. The index is kept in a {@link ClassValue}, so it doesn't
+ * prevent the classes from being unloaded.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class AnnotationIndex {
+
+	/**
+	 * The annotations tracked in the bitsets. The bit of each annotation is its
+	 * position in this list.
+	 */
+	static final List<Class<? extends Annotation>> KNOWN_ANNOTATIONS = Collections.unmodifiableList(
+			Arrays.<Class<? extends Annotation>>asList(ManyToOne.class, OneToMany.class,
+					ManyToMany.class, OneToOne.class, Id.class, Version.class, Column.class, Basic.class,
+					GeneratedValue.class, JoinColumn.class, Transient.class, Embedded.class, EmbeddedId.class));
+
+	private static final Map<Class<? extends Annotation>, Long> BITS = new IdentityHashMap<>();
+
+	static {
+		for (int i = 0; i < KNOWN_ANNOTATIONS.size(); i++) {
+			BITS.put(KNOWN_ANNOTATIONS.get(i), 1L << i);
+		}
+	}
+
+	static final long MANY_TO_ONE = bit(ManyToOne.class);
+
+	static final long ONE_TO_MANY = bit(OneToMany.class);
+
+	static final long MANY_TO_MANY = bit(ManyToMany.class);
+
+	static final long ONE_TO_ONE = bit(OneToOne.class);
+
+	/**
+	 * The bits of the JPA relation annotations
+	 */
+	static final long RELATIONS = MANY_TO_ONE | ONE_TO_MANY | MANY_TO_MANY | ONE_TO_ONE;
+
+	private static final ClassValue<AnnotationIndex> INDEXES = new ClassValue<AnnotationIndex>() {
+		@Override
+		protected AnnotationIndex computeValue(Class<?> type) {
+			return new AnnotationIndex(type);
+		}
+	};
+
+	private final Map<String, FieldAnnotations> fields;
+
+	private AnnotationIndex(Class<?> declaringClass) {
+		Map<String, FieldAnnotations> fields = new HashMap<>();
+		for (Field field : declaringClass.getDeclaredFields()) {
+			fields.put(field.getName(), new FieldAnnotations(field));
+		}
+		this.fields = fields;
+	}
+
+	/**
+	 * Returns the bit of the given annotation, or 0 if it is not one of the
+	 * {@link #KNOWN_ANNOTATIONS}.
+	 */
+	static long bit(Class<? extends Annotation> annotationClass) {
+		Long bit = BITS.get(annotationClass);
+		return bit == null ? 0L : bit;
+	}
+
+	/**
+	 * Returns the indexed annotations of the given field
+	 */
+	static FieldAnnotations forField(Field field) {
+		return INDEXES.get(field.getDeclaringClass()).fields.get(field.getName());
+	}
+
+	/**
+	 * The known annotations of a single field.
+	 */
+	static final class FieldAnnotations {
+
+		private final Field field;
+
+		private final long bits;
+
+		private final Annotation[] annotations;
+
+		private FieldAnnotations(Field field) {
+			this.field = field;
+			this.annotations = new Annotation[KNOWN_ANNOTATIONS.size()];
+			long bits = 0L;
+			for (int i = 0; i < annotations.length; i++) {
+				annotations[i] = field.getAnnotation(KNOWN_ANNOTATIONS.get(i));
+				if (annotations[i] != null) {
+					bits |= 1L << i;
+				}
+			}
+			this.bits = bits;
+		}
+
+		/**
+		 * Returns the bitset of the known annotations of the field
+		 */
+		long getBits() {
+			return bits;
+		}
+
+		/**
+		 * Returns true if the field has any of the annotations in the given mask
+		 */
+		boolean hasAny(long mask) {
+			return (bits & mask) != 0;
+		}
+
+		/**
+		 * Returns true if the field has the given annotation
+		 */
+		boolean has(Class<? extends Annotation> annotationClass) {
+			long bit = bit(annotationClass);
+			if (bit != 0L) {
+				return (bits & bit) != 0;
+			}
+			return field.isAnnotationPresent(annotationClass);
+		}
+
+		/**
+		 * Returns the given annotation of the field, or null if it doesn't have it
+		 */
+		<A extends Annotation> A get(Class<A> annotationClass) {
+			long bit = bit(annotationClass);
+			if (bit != 0L) {
+				return annotationClass.cast(annotations[Long.numberOfTrailingZeros(bit)]);
+			}
+			return field.getAnnotation(annotationClass);
+		}
+	}
+}
@@ -3,7 +3,6 @@ package org.sif.beans;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,11 +11,10 @@ import javax.persistence.*;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.sif.beans.Classes.classFor;
 
@@ -33,6 +31,11 @@ public final class AnnotationUtil {
 	 */
 	final static Logger log = LoggerFactory.getLogger(AnnotationUtil.class);
 
+	/**
+	 * Warning for fields not found, logged at most once a minute
+	 */
+	private static final ThrottledWarning missingFieldWarning = new ThrottledWarning(log, 1, TimeUnit.MINUTES);
+
 	/**
 	 * Returns true if the class has the indicated annotation
 	 * 
@@ -69,33 +72,37 @@ public final class AnnotationUtil {
 			throw new IllegalArgumentException(
 					"Couldn't find [" + fieldName + "] in bean class [" + bean.getSimpleName() + "]");
 		}
-		return field.getAnnotation(annotationClass);
+		return AnnotationIndex.forField(field).get(annotationClass);
 	}
 
 	/**
 	 * Returns the field in the target bean. This method will recurse to supper
-	 * classes.
+	 * classes. Nested fields of collections are looked up in the collection
+	 * element type. Resolved fields are cached per class.
 	 */
 	static Field getField(Class<?> beanClass, String fieldName) {
-		if (isNested(fieldName)) {
-			String lastPart = fieldName.substring(fieldName.indexOf(".") + 1);
-			log.debug("This is a nested field. Recursion for lastPart: {}", lastPart);
-			String firstPart = fieldName.substring(0, fieldName.indexOf("."));
-			log.debug("Getting type for first part property [{}]", firstPart);
-			Class<?> firstType = getFieldClass(beanClass, firstPart);
-			if (Collection.class.isAssignableFrom(firstType)) {
-				log.debug("Found a collection. Trying the generic type...");
-				firstType = getTypeParameterClassForCollectionField(beanClass, firstPart);
-			}
-			log.debug("FirstType class: [{}]", firstType);
-			return getField(firstType, lastPart);
-		}
-		Field field = FieldUtils.getField(beanClass, fieldName, true);
-		if (field != null) {
-			return field;
-		} else {
-			throw new IllegalArgumentException("Field [" + fieldName + "] not found in [" + beanClass + "]");
+		return FieldMetadata.of(beanClass).getElementField(fieldName);
+	}
+
+	/**
+	 * Returns the field in the target bean, as {@link #getField(Class, String)}
+	 * does, or an empty Optional if there is no such field. No exception is
+	 * thrown, and unknown fields are remembered, so looking them up again costs
+	 * about as much as looking up a known field.
+	 *
+	 * @param beanClass the class to look the field up
+	 * @param fieldName the field name, maybe nested
+	 * @return the field, if found
+	 */
+	public static Optional<Field> tryGetField(Class<?> beanClass, String fieldName) {
+		return Optional.ofNullable(findField(beanClass, fieldName));
+	}
+
+	private static Field findField(Class<?> beanClass, String fieldName) {
+		if (beanClass == null) {
+			return null;
 		}
+		return FieldMetadata.of(beanClass).findElementField(fieldName);
 	}
 
 	/**
@@ -151,14 +158,8 @@ public final class AnnotationUtil {
 
 	public static boolean fieldHasAnnotation(Class<?> bean, String fieldName,
 			Class<? extends Annotation> annotationClass) {
-		try {
-			Annotation annotation = AnnotationUtil.getAnnotationForField(bean, fieldName, annotationClass);
-			return annotation != null;
-		} catch (Exception ex) {
-			log.warn("Exception getting annotation [{}] for field: [{}] on bean [{}]: {}",
-					annotationClass, fieldName, bean, ex, ex);
-		}
-		return false;
+		AnnotationIndex.FieldAnnotations fieldAnnotations = getFieldAnnotations(bean, fieldName);
+		return fieldAnnotations != null && fieldAnnotations.has(annotationClass);
 	}
 
 	/**
@@ -175,17 +176,35 @@ public final class AnnotationUtil {
 	 */
 	public static boolean fieldHasAnyAnnotation(Class<?> beanClass, String fieldName,
 			List<Class<? extends Annotation>> annotations) {
+		AnnotationIndex.FieldAnnotations fieldAnnotations = getFieldAnnotations(beanClass, fieldName);
+		if (fieldAnnotations == null) {
+			return false;
+		}
 		for (Class<? extends Annotation> annotation : annotations) {
-			if (fieldHasAnnotation(beanClass, fieldName, annotation)) {
+			if (fieldAnnotations.has(annotation)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Returns the indexed annotations of the given field, or null if the field
+	 * can't be found. Missing fields are reported through a throttled warning.
+	 */
+	static AnnotationIndex.FieldAnnotations getFieldAnnotations(Class<?> beanClass, String fieldName) {
+		Field field = findField(beanClass, fieldName);
+		if (field == null) {
+			missingFieldWarning.warn("Field [{}] not found on bean [{}]", fieldName, beanClass);
+			return null;
+		}
+		return AnnotationIndex.forField(field);
+	}
+
 	/**
 	 * Returns whether a field in a bean has a JPA relation annotation (ManyToMany,
-	 * OneToMany, ManyToOne).
+	 * OneToMany, ManyToOne, OneToOne). The field annotations are indexed once
+	 * per class, so this is a single bit test.
 	 * 
 	 * @param beanClass
 	 *            the class to check
@@ -195,37 +214,16 @@ public final class AnnotationUtil {
 	 * @throws Exception
 	 */
 	public static boolean fieldHasRelationAnnotation(Class<?> beanClass, String fieldName) throws Exception {
-		List<Class<? extends Annotation>> annotations = new ArrayList<>();
-		annotations.add(ManyToMany.class);
-		annotations.add(OneToMany.class);
-		annotations.add(ManyToOne.class);
-		annotations.add(OneToOne.class);
-		return AnnotationUtil.fieldHasAnyAnnotation(beanClass, fieldName, annotations);
+		AnnotationIndex.FieldAnnotations fieldAnnotations = getFieldAnnotations(beanClass, fieldName);
+		return fieldAnnotations != null && fieldAnnotations.hasAny(AnnotationIndex.RELATIONS);
 	}
 
+	/**
+	 * Returns the type argument of a generic collection field, like the Entity
+	 * in Set&lt;Entity&gt;, or null if the field is not generic.
+	 */
 	public static Class<?> getTypeParameterClassForCollectionField(Class<?> beanClass, String fieldName) {
-		// It is the generic type applied to the collection.
-		Field annotatedField = getField(beanClass, fieldName);
-		// log.info("Annotated field: " + annotatedField);
-		Type genericType = annotatedField.getGenericType();
-		log.debug("Generic type: " + genericType);
-		if (genericType == null || !(genericType instanceof ParameterizedType)) {
-			// This field doesn't have a generic type. So I can't determine the
-			// correct type this one-to-many fields relates to.
-			return null;
-		}
-		ParameterizedType parType = (ParameterizedType) genericType;
-		Type[] typeArguments = parType.getActualTypeArguments();
-		if (typeArguments == null || typeArguments.length == 0) {
-			// No type argument specified. Can't determine the actual type
-			// for the relation
-			return null;
-		}
-		// This is the type argument declared for the one-to-many field like
-		// Set<Entity>
-		Type entityTypeArgument = typeArguments[0];
-		// log.info("EntityTypeArgument: " + entityTypeArgument);
-		return (Class<?>) entityTypeArgument;
+		return FieldMetadata.of(beanClass).getElementType(fieldName);
 	}
 
 }
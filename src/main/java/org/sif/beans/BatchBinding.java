@@ -0,0 +1,77 @@
+package org.sif.beans;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the batch mode of {@link PropertiesSetter#setAllProperties(List, Executor)}.
+ * <p>
+ * The items are split into contiguous partitions, each bound by a single task
+ * submitted to the executor. A failing item is recorded and doesn't stop its
+ * partition. The failures of each partition are collected by its own task, so
+ * the tasks share nothing but the properties setter.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class BatchBinding {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchBinding.class);
+
+	/**
+	 * Number of partitions per available processor, so uneven partitions still
+	 * keep all processors busy
+	 */
+	static final int PARTITIONS_PER_PROCESSOR = 4;
+
+	private BatchBinding() {
+	}
+
+	static <T> BatchBindingResult<T> run(PropertiesSetter<T> setter, List<BindingItem<T>> batch, Executor executor) {
+		// The partitions are read by index
+		List<BindingItem<T>> items = batch instanceof RandomAccess ? batch : new ArrayList<>(batch);
+		int partitions = Math.min(items.size(), Runtime.getRuntime().availableProcessors() * PARTITIONS_PER_PROCESSOR);
+		List<CompletableFuture<List<BatchBindingResult.Failure<T>>>> tasks = new ArrayList<>(partitions);
+		for (int p = 0; p < partitions; p++) {
+			int from = (int) ((long) items.size() * p / partitions);
+			int to = (int) ((long) items.size() * (p + 1) / partitions);
+			tasks.add(CompletableFuture.supplyAsync(() -> bind(setter, items, from, to), executor));
+		}
+		List<BatchBindingResult.Failure<T>> failures = new ArrayList<>();
+		try {
+			for (CompletableFuture<List<BatchBindingResult.Failure<T>>> task : tasks) {
+				failures.addAll(task.join());
+			}
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof Error) {
+				throw (Error) ex.getCause();
+			}
+			throw ex;
+		}
+		failures.sort(Comparator.comparingInt(BatchBindingResult.Failure::getIndex));
+		return new BatchBindingResult<>(items.size(), failures);
+	}
+
+	private static <T> List<BatchBindingResult.Failure<T>> bind(PropertiesSetter<T> setter,
+			List<BindingItem<T>> items, int from, int to) {
+		List<BatchBindingResult.Failure<T>> failures = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			BindingItem<T> item = items.get(i);
+			try {
+				setter.setAllProperties(item.getBean(), item.getParameters());
+			} catch (RuntimeException ex) {
+				log.debug("Could not bind the batch item {}: {}", i, ex.toString());
+				failures.add(new BatchBindingResult.Failure<>(i, item, ex));
+			}
+		}
+		return failures;
+	}
+}
@@ -0,0 +1,92 @@
+package org.sif.beans;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a batch binding: the number of items bound and the failure of
+ * each item that couldn't be bound.
+ *
+ * @param <T> the bean type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public final class BatchBindingResult<T> {
+
+	private final int size;
+
+	private final List<Failure<T>> failures;
+
+	BatchBindingResult(int size, List<Failure<T>> failures) {
+		this.size = size;
+		this.failures = Collections.unmodifiableList(failures);
+	}
+
+	/**
+	 * Returns the number of items in the batch
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of items bound with no errors
+	 */
+	public int getSuccessCount() {
+		return size - failures.size();
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+	/**
+	 * Returns the failures, ordered by item index
+	 */
+	public List<Failure<T>> getFailures() {
+		return failures;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchBindingResult{size=" + size + ", failures=" + failures + "}";
+	}
+
+	/**
+	 * The failure binding a single item. The properties set before the failure
+	 * are kept in the bean.
+	 */
+	public static final class Failure<T> {
+
+		private final int index;
+
+		private final BindingItem<T> item;
+
+		private final RuntimeException cause;
+
+		Failure(int index, BindingItem<T> item, RuntimeException cause) {
+			this.index = index;
+			this.item = item;
+			this.cause = cause;
+		}
+
+		/**
+		 * Returns the index of the item in the batch
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		public BindingItem<T> getItem() {
+			return item;
+		}
+
+		public RuntimeException getCause() {
+			return cause;
+		}
+
+		@Override
+		public String toString() {
+			return "Failure{index=" + index + ", cause=" + cause + "}";
+		}
+	}
+}
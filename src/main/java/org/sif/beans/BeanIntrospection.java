@@ -0,0 +1,109 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.PropertyUtils;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the properties of a bean class, built once per class
+ * from the commons-beanutils property descriptors.
+ * <p>
+ * Each property gets a {@link PropertyAccessor} holding method handles for its
+ * read and write methods, so reading and writing simple properties doesn't go
+ * through {@link PropertyUtils} anymore. Snapshots are kept in a
+ * {@link ClassValue}, so they don't prevent the bean classes from being
+ * unloaded.
+ * </p>
+ * Beans handled specially by commons-beanutils, that is {@link Map}s and
+ * {@link DynaBean}s, are not supported (see {@link #supports(Object)}) and
+ * must still be handled through {@link PropertyUtils}.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public final class BeanIntrospection {
+
+	private static final ClassValue<BeanIntrospection> INTROSPECTIONS = new ClassValue<BeanIntrospection>() {
+		@Override
+		protected BeanIntrospection computeValue(Class<?> type) {
+			return new BeanIntrospection(type);
+		}
+	};
+
+	private final Class<?> beanClass;
+
+	private final Map<String, PropertyAccessor> accessors;
+
+	private final Collection<String> propertyNames;
+
+	private BeanIntrospection(Class<?> beanClass) {
+		this.beanClass = beanClass;
+		PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(beanClass);
+		Map<String, PropertyAccessor> accessors = new HashMap<>();
+		List<String> names = new ArrayList<>(descriptors.length);
+		for (PropertyDescriptor descriptor : descriptors) {
+			names.add(descriptor.getName());
+			if (descriptor.getPropertyType() == null) {
+				// Indexed only property. Left to PropertyUtils
+				continue;
+			}
+			accessors.put(descriptor.getName(), new PropertyAccessor(beanClass, descriptor.getName(),
+					descriptor.getPropertyType(), descriptor.getReadMethod(), descriptor.getWriteMethod()));
+		}
+		this.accessors = Collections.unmodifiableMap(accessors);
+		this.propertyNames = Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Returns the introspection snapshot for the given class
+	 */
+	public static BeanIntrospection forClass(Class<?> beanClass) {
+		return INTROSPECTIONS.get(beanClass);
+	}
+
+	/**
+	 * Returns whether the given bean properties can be handled by a
+	 * {@link BeanIntrospection}. Null values, {@link Map}s and
+	 * {@link DynaBean}s are not supported.
+	 */
+	public static boolean supports(Object bean) {
+		return bean != null && !(bean instanceof Map) && !(bean instanceof DynaBean);
+	}
+
+	/**
+	 * Returns the introspected class
+	 */
+	public Class<?> getBeanClass() {
+		return beanClass;
+	}
+
+	/**
+	 * Returns the accessor for the given simple property, or null if the class
+	 * doesn't have such property.
+	 */
+	public PropertyAccessor getAccessor(String property) {
+		return accessors.get(property);
+	}
+
+	/**
+	 * Returns true if the class has the given simple property and it can be read
+	 */
+	public boolean isReadable(String property) {
+		PropertyAccessor accessor = accessors.get(property);
+		return accessor != null && accessor.isReadable();
+	}
+
+	/**
+	 * Returns the class property names. The returned collection is shared and
+	 * can't be modified.
+	 */
+	public Collection<String> getPropertyNames() {
+		return propertyNames;
+	}
+}
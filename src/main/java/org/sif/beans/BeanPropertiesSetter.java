@@ -1,17 +1,13 @@
 package org.sif.beans;
 
-import org.apache.commons.beanutils.PropertyUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-
-import static org.apache.commons.lang3.StringUtils.remove;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Defines operations that help set properties on a bean, using the persistence
@@ -23,6 +19,14 @@ import static org.apache.commons.lang3.StringUtils.remove;
  * </p>
  * This is the default implementation but other more involved implementations
  * can be used.
+ * <p>
+ * A single instance can be used by many threads, as the default
+ * {@link Named} singleton is: the binding state shared between calls is
+ * limited to the immutable {@link BindingPlan}s, published through concurrent
+ * maps, and to the factory and flags, which are volatile. Everything computed
+ * from the parameters, like the ignore list, is local to each call. The
+ * property setters returned by the factory must be thread safe too.
+ * </p>
  * 
  * @author eugenio
  * 
@@ -30,7 +34,7 @@ import static org.apache.commons.lang3.StringUtils.remove;
 @Named
 public class BeanPropertiesSetter<T, I> implements PropertiesSetter<T> {
 
-	Logger log = LoggerFactory.getLogger(BeanPropertiesSetter.class);
+	final Logger log = LoggerFactory.getLogger(BeanPropertiesSetter.class);
 
 	public static final String IGNORE_EMPTY_PROPERTY = "org.sif.beans.ignore.empty";
 	/**
@@ -40,7 +44,23 @@ public class BeanPropertiesSetter<T, I> implements PropertiesSetter<T> {
 	public static final String DISSOCIATE_PREFIX = "dissociate-";
 	public static final String IGNORE_PROPERTY = "org.sif.beans.ignore";
 
-	private PropertySetterFactory<T, I> factory;
+	/**
+	 * Maximum number of distinct parameter key sets cached per bean class.
+	 */
+	static final int MAX_PLANS_PER_CLASS = 256;
+
+	private volatile PropertySetterFactory<T, I> factory;
+
+	private volatile boolean useGeneratedSetters;
+
+	private volatile BindingMetrics metrics = BindingMetrics.NOOP;
+
+	/**
+	 * The compiled binding plans, by bean class and parameter key set. Replaced,
+	 * rather than cleared, when the plans are discarded, so a plan compiled
+	 * with the previous settings can't be cached after the discard.
+	 */
+	private volatile Map<Class<?>, Map<Set<String>, BindingPlan<T, I>>> plans = new ConcurrentHashMap<>();
 
 	/**
 	 * Set all properties found in the provided bean with the provided
@@ -52,6 +72,17 @@ public class BeanPropertiesSetter<T, I> implements PropertiesSetter<T> {
 	 * This implementation will leave the properties not defined in the provided
 	 * parameters untouched.
 	 * </p>
+	 * <p>
+	 * The property setters and the readability of each property are resolved
+	 * once for each bean class and parameter key set and kept in a {@link
+	 * BindingPlan}. The factory must, therefore, return setters that depend
+	 * only on the bean class and the property, not on the bean state.
+	 * </p>
+	 * <p>
+	 * If enabled with {@link #setUseGeneratedSetters(boolean)} and a {@link
+	 * GeneratedPropertiesSetter} was generated for the bean class, the
+	 * properties it handles are set directly through it.
+	 * </p>
 	 * 
 	 * @param bean
 	 *            the bean to set the properties
@@ -63,58 +94,63 @@ public class BeanPropertiesSetter<T, I> implements PropertiesSetter<T> {
 	 */
 	@Override
 	public void setAllProperties(T bean, Map<String, Object> parameters) {
-		log.debug("Setting all properties with parameters: " + parameters);
-		// Filter the ignore properties
-		final List<String> ignoreList = new ArrayList<>();
-		for(Map.Entry entry : parameters.entrySet()) {
-			if (IGNORE_PROPERTY.equals(entry.getKey())) {
-				ignoreList.add(entry.getValue().toString());
-			}
-			if (IGNORE_EMPTY_PROPERTY.equals(entry.getKey())) {
-				// The property name to ignore. Check if it is empty
-				String ignorePropertyName = entry.getValue().toString();
-				// The ignore property name is another value in parameters using it as a key
-				Object value = parameters.get(ignorePropertyName);
-				if (value == null ||
-						(value instanceof String && StringUtils.isEmpty(value.toString()))) {
-					// Ignore empty will ignore nulls
-					ignoreList.add(ignorePropertyName);
-				}
-			}
+		if (Debugger.TRACE && log.isDebugEnabled()) {
+			log.debug("Setting all properties with parameters: {}", Debugger.lazy(parameters));
 		}
-		// For each key in the parameters map
-		for (Map.Entry<String, Object> entry : parameters.entrySet()) {
-			String property = entry.getKey();
-			// If the ignore property was defined for this property then skip it
-			if (ignoreList.contains(property)) {
-				log.debug("Ignoring property [" + property + "]");
-				continue;
-			}
-			// First get the parameter value before any modifications
-			Object parameterValue = entry.getValue();
-			log.debug("Handling property: [" + property + "] with value: [" + parameterValue + "]");
-			boolean dissociate = false;
-			// If the dissociate prefix was used, change it to the real property
-			// name
-			if (property.startsWith(DISSOCIATE_PREFIX)) {
-				property = remove(property, DISSOCIATE_PREFIX);
-				dissociate = true;
-				log.debug("Found DISSOCIATE PREFIX. Property to unset: " + property);
-			}
-			if (!PropertyUtils.isReadable(bean, property)) {
-				log.warn("The property [" + property + "] is not readable on bean [" + bean + "]");
-				continue;
-			}
-			// Create the appropriate property setter
-			PropertySetter<T, I> setter = getFactory().getFor(bean, property);
-			if (dissociate) {
-				// unset the property
-				setter.unsetProperty(bean, property, parameterValue);
-			} else {
-				// set the property
-				setter.setProperty(bean, property, parameterValue);
+		execute(getPlan(bean, parameters.keySet()), bean, parameters);
+	}
+
+	/**
+	 * Runs the plan against the bean, recording the bind and its properties in
+	 * the metrics if they are enabled
+	 */
+	void execute(BindingPlan<T, I> plan, T bean, Map<String, Object> parameters) {
+		BindingMetrics metrics = this.metrics;
+		if (!metrics.isEnabled()) {
+			plan.execute(bean, parameters, metrics);
+			return;
+		}
+		long start = System.nanoTime();
+		plan.execute(bean, parameters, metrics);
+		metrics.recordBind(bean.getClass(), parameters.size(), System.nanoTime() - start);
+	}
+
+	/**
+	 * Returns the {@link BindingPlan} for the class of the given bean and the
+	 * given parameter keys, compiling and caching it on first use. Once the
+	 * cache holds {@link #MAX_PLANS_PER_CLASS} plans for a class, new key sets
+	 * are compiled but not cached, so payloads with arbitrary keys can't grow
+	 * the cache without limit.
+	 */
+	BindingPlan<T, I> getPlan(T bean, Set<String> keys) {
+		Map<Class<?>, Map<Set<String>, BindingPlan<T, I>>> plans = this.plans;
+		Map<Set<String>, BindingPlan<T, I>> classPlans = plans.get(bean.getClass());
+		if (classPlans == null) {
+			classPlans = plans.computeIfAbsent(bean.getClass(), c -> new ConcurrentHashMap<>());
+		}
+		BindingPlan<T, I> plan = classPlans.get(keys);
+		BindingMetrics metrics = this.metrics;
+		if (metrics.isEnabled()) {
+			metrics.recordCacheLookup(BindingMetrics.PLAN_CACHE, plan != null);
+		}
+		if (plan == null) {
+			plan = BindingPlan.compile(bean, keys, getFactory(), useGeneratedSetters);
+			log.debug("Compiled binding plan for [{}] and keys {}", bean.getClass(), keys);
+			if (classPlans.size() < MAX_PLANS_PER_CLASS) {
+				classPlans.putIfAbsent(plan.getKeys(), plan);
 			}
 		}
+		return plan;
+	}
+
+	/**
+	 * Returns the properties to ignore according to the {@link #IGNORE_PROPERTY}
+	 * and {@link #IGNORE_EMPTY_PROPERTY} directives found in the parameters.
+	 * Each directive can name several properties, as an array, a collection or
+	 * a comma separated list.
+	 */
+	static Set<String> ignoredProperties(Map<String, Object> parameters) {
+		return BindingDirectives.ignoredProperties(parameters);
 	}
 
 	@Override
@@ -122,8 +158,42 @@ public class BeanPropertiesSetter<T, I> implements PropertiesSetter<T> {
 		return this.factory;
 	}
 
+	public boolean isUseGeneratedSetters() {
+		return useGeneratedSetters;
+	}
+
+	/**
+	 * Sets whether the {@link GeneratedPropertiesSetter}s generated for the
+	 * bean classes are used ahead of the factory setters. Disabled by default,
+	 * as the generated setters convert the values on their own, with the
+	 * default converters, bypassing the factory setters and the metrics of the
+	 * properties they handle.
+	 */
+	public void setUseGeneratedSetters(boolean useGeneratedSetters) {
+		this.useGeneratedSetters = useGeneratedSetters;
+		this.plans = new ConcurrentHashMap<>();
+	}
+
+	public BindingMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics recording the binds, the latency of each property and
+	 * the lookups of the plan cache, as {@link BindingMetrics#PLAN_CACHE}. By
+	 * default nothing is recorded.
+	 */
+	public void setMetrics(BindingMetrics metrics) {
+		this.metrics = metrics == null ? BindingMetrics.NOOP : metrics;
+	}
+
+	/**
+	 * Sets the property setter factory. The compiled binding plans hold the
+	 * setters resolved by the previous factory, so they are discarded.
+	 */
 	@Inject
 	public void setFactory(BeanPropertySetterFactory<T, I> factory) {
 		this.factory = factory;
+		this.plans = new ConcurrentHashMap<>();
 	}
 }
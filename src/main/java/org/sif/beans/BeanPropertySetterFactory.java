@@ -5,10 +5,20 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import static org.sif.beans.Classes.classFor;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Factory for {@link PropertySetter}s.
+ * <p>
+ * Each property is classified once as one of the {@link PropertyKind}s, and
+ * gets the setter configured for its kind, or the simple property setter if
+ * there is none. The setter chosen for each class and property is cached, so
+ * once a property was seen {@link #getFor(Object, String)} is a single lookup.
+ * </p>
+ *
  * @param <T> the bean type
  * @param <I> the bean primary key type
  */
@@ -17,19 +27,91 @@ public class BeanPropertySetterFactory<T, I> implements  PropertySetterFactory<T
 
 	Logger log = LoggerFactory.getLogger(getClass());
 
-	private PropertySetter<T, I> simplePropertySetter;
+	/**
+	 * Maximum number of properties whose setter is cached per bean class
+	 */
+	static final int MAX_PROPERTIES_PER_CLASS = 1024;
+
+	private volatile PropertySetter<T, I> simplePropertySetter;
+
+	private volatile BindingMetrics metrics = BindingMetrics.NOOP;
+
+	private final Map<PropertyKind, PropertySetter<T, I>> setters = new EnumMap<>(PropertyKind.class);
+
+	/**
+	 * The chosen setters, by bean class and property. Replaced when the
+	 * setters change.
+	 */
+	private volatile Map<Class<?>, ConcurrentMap<String, PropertySetter<T, I>>> choices = new ConcurrentHashMap<>();
 
 	@Inject
 	@Named("SimplePropertySetter")
 	public void setSimplePropertySetter(PropertySetter<T, I> simplePropertySetter) {
 		this.simplePropertySetter = simplePropertySetter;
+		this.choices = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Sets the setter of the properties of the given kind. The simple property
+	 * setter is used for the kinds with no setter.
+	 */
+	public synchronized void setPropertySetter(PropertyKind kind, PropertySetter<T, I> setter) {
+		if (setter == null) {
+			setters.remove(kind);
+		} else {
+			setters.put(kind, setter);
+		}
+		this.choices = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Returns the setter configured for the given kind, or null
+	 */
+	public synchronized PropertySetter<T, I> getPropertySetter(PropertyKind kind) {
+		return setters.get(kind);
 	}
 
 	@Override
 	public PropertySetter<T, I> getFor(T bean, String property) {
-		log.debug("Bean: {}", bean);
-		log.debug("Getting PropertySetter for bean [{}] and property [{}]", classFor(bean), property);
-		return simplePropertySetter;
+		Map<Class<?>, ConcurrentMap<String, PropertySetter<T, I>>> choices = this.choices;
+		ConcurrentMap<String, PropertySetter<T, I>> classChoices = choices.get(bean.getClass());
+		if (classChoices == null) {
+			classChoices = choices.computeIfAbsent(bean.getClass(), c -> new ConcurrentHashMap<>());
+		}
+		PropertySetter<T, I> setter = classChoices.get(property);
+		BindingMetrics metrics = this.metrics;
+		if (metrics.isEnabled()) {
+			metrics.recordCacheLookup(BindingMetrics.SETTER_CACHE, setter != null);
+		}
+		if (setter == null) {
+			setter = choose(bean.getClass(), property);
+			if (setter != null && classChoices.size() < MAX_PROPERTIES_PER_CLASS) {
+				classChoices.putIfAbsent(property, setter);
+			}
+		}
+		return setter;
+	}
+
+	public BindingMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics recording the lookups of the setter cache, as
+	 * {@link BindingMetrics#SETTER_CACHE}. By default nothing is recorded.
+	 */
+	public void setMetrics(BindingMetrics metrics) {
+		this.metrics = metrics == null ? BindingMetrics.NOOP : metrics;
+	}
+
+	private synchronized PropertySetter<T, I> choose(Class<?> beanClass, String property) {
+		PropertyKind kind = PropertyKind.of(beanClass, property);
+		PropertySetter<T, I> setter = setters.get(kind);
+		if (setter == null) {
+			setter = simplePropertySetter;
+		}
+		log.debug("Using {} setter [{}] for property [{}] of [{}]", kind, setter, property, beanClass);
+		return setter;
 	}
 
 }
@@ -0,0 +1,114 @@
+package org.sif.beans;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Array;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.sif.beans.BeanPropertiesSetter.IGNORE_EMPTY_PROPERTY;
+import static org.sif.beans.BeanPropertiesSetter.IGNORE_PROPERTY;
+
+/**
+ * Parses the {@link BeanPropertiesSetter#IGNORE_PROPERTY} and
+ * {@link BeanPropertiesSetter#IGNORE_EMPTY_PROPERTY} directives.
+ * <p>
+ * A directive can name several properties: its value can be an array, a
+ * collection or a comma separated list of names, each one trimmed. The
+ * directives are resolved either into a set of names, or, for a
+ * {@link BindingPlan}, into a {@link BitSet} over the plan steps, so checking
+ * whether a property is ignored costs the same whatever the number of
+ * ignored properties.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class BindingDirectives {
+
+	private BindingDirectives() {
+	}
+
+	/**
+	 * Returns whether the key is one of the directives
+	 */
+	static boolean isDirective(String key) {
+		return IGNORE_PROPERTY.equals(key) || IGNORE_EMPTY_PROPERTY.equals(key);
+	}
+
+	/**
+	 * Returns the names of the properties ignored by the directives of the
+	 * given parameters
+	 */
+	static Set<String> ignoredProperties(Map<String, Object> parameters) {
+		Set<String> ignored = new HashSet<>();
+		forEachIgnored(parameters, ignored::add);
+		return ignored;
+	}
+
+	/**
+	 * Returns the indexes of the steps ignored by the directives of the given
+	 * parameters.
+	 *
+	 * @param parameters the parameters
+	 * @param steps      the index of the step of each parameter key
+	 */
+	static BitSet ignoredSteps(Map<String, Object> parameters, Map<String, Integer> steps) {
+		BitSet ignored = new BitSet(steps.size());
+		forEachIgnored(parameters, name -> {
+			Integer step = steps.get(name);
+			if (step != null) {
+				ignored.set(step);
+			}
+		});
+		return ignored;
+	}
+
+	private static void forEachIgnored(Map<String, Object> parameters, Consumer<String> action) {
+		Object ignore = parameters.get(IGNORE_PROPERTY);
+		if (ignore != null) {
+			forEachName(ignore, action);
+		}
+		Object ignoreEmpty = parameters.get(IGNORE_EMPTY_PROPERTY);
+		if (ignoreEmpty != null) {
+			forEachName(ignoreEmpty, name -> {
+				// The named property is ignored if its own value is empty. Ignore empty will ignore nulls
+				Object value = parameters.get(name);
+				if (value == null || (value instanceof String && StringUtils.isEmpty(value.toString()))) {
+					action.accept(name);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Calls the action for each property name of a directive value
+	 */
+	static void forEachName(Object value, Consumer<String> action) {
+		if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				if (element != null) {
+					forEachName(element, action);
+				}
+			}
+		} else if (value.getClass().isArray()) {
+			for (int i = 0; i < Array.getLength(value); i++) {
+				Object element = Array.get(value, i);
+				if (element != null) {
+					forEachName(element, action);
+				}
+			}
+		} else {
+			CommaSeparatedTokenizer tokenizer = new CommaSeparatedTokenizer(CollectionUtil.asCharSequence(value));
+			while (tokenizer.next()) {
+				String name = tokenizer.token();
+				if (!name.isEmpty()) {
+					action.accept(name);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package org.sif.beans;
+
+import java.util.Map;
+
+/**
+ * A bean and the parameters to set on it, as bound by the batch mode of
+ * {@link PropertiesSetter#setAllProperties(java.util.List, java.util.concurrent.Executor)}.
+ *
+ * @param <T> the bean type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public final class BindingItem<T> {
+
+	private final T bean;
+
+	private final Map<String, Object> parameters;
+
+	private BindingItem(T bean, Map<String, Object> parameters) {
+		this.bean = bean;
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Returns an item binding the given parameters to the given bean.
+	 *
+	 * @throws IllegalArgumentException if the bean or the parameters are null
+	 */
+	public static <T> BindingItem<T> of(T bean, Map<String, Object> parameters) {
+		if (bean == null || parameters == null) {
+			throw new IllegalArgumentException("The bean and the parameters of a binding item can't be null");
+		}
+		return new BindingItem<>(bean, parameters);
+	}
+
+	public T getBean() {
+		return bean;
+	}
+
+	public Map<String, Object> getParameters() {
+		return parameters;
+	}
+
+	@Override
+	public String toString() {
+		return "BindingItem{" + bean + ", " + parameters + "}";
+	}
+}
@@ -0,0 +1,90 @@
+package org.sif.beans;
+
+/**
+ * Receives the measures of the binding: the binds and their latency, the
+ * latency of each property, the conversion failures and the cache lookups.
+ * <p>
+ * The binding components record into the {@link #NOOP} metrics by default,
+ * which skip the measures altogether. Set a {@link RecordingBindingMetrics}
+ * to record them in memory, or another implementation to forward them
+ * elsewhere. Implementations are called on every bind, so they must be thread
+ * safe and cheap, with no allocation for the common case.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public interface BindingMetrics {
+
+	/**
+	 * The metrics recording nothing
+	 */
+	BindingMetrics NOOP = new BindingMetrics() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public void recordBind(Class<?> beanClass, int properties, long nanos) {
+		}
+
+		@Override
+		public void recordProperty(Class<?> beanClass, String property, long nanos) {
+		}
+
+		@Override
+		public void recordConversionFailure(Class<?> targetType) {
+		}
+
+		@Override
+		public void recordCacheLookup(String cache, boolean hit) {
+		}
+
+		@Override
+		public String toString() {
+			return "BindingMetrics.NOOP";
+		}
+	};
+
+	/**
+	 * The name of the binding plan cache of {@link BeanPropertiesSetter}
+	 */
+	String PLAN_CACHE = "plans";
+
+	/**
+	 * The name of the property setter cache of {@link BeanPropertySetterFactory}
+	 */
+	String SETTER_CACHE = "setters";
+
+	/**
+	 * Returns whether the measures are recorded. When false, the callers skip
+	 * the timing too.
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Records a bind of all the parameters of a bean
+	 *
+	 * @param beanClass  the bean class
+	 * @param properties the number of parameters
+	 * @param nanos      the time it took
+	 */
+	void recordBind(Class<?> beanClass, int properties, long nanos);
+
+	/**
+	 * Records the setting of a single property
+	 */
+	void recordProperty(Class<?> beanClass, String property, long nanos);
+
+	/**
+	 * Records a value that couldn't be converted to the given type
+	 */
+	void recordConversionFailure(Class<?> targetType);
+
+	/**
+	 * Records a lookup in the named cache
+	 */
+	void recordCacheLookup(String cache, boolean hit);
+}
@@ -0,0 +1,239 @@
+package org.sif.beans;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable copy of the measures recorded by a
+ * {@link RecordingBindingMetrics}, for exporting them.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public final class BindingMetricsSnapshot {
+
+	private final long elapsedNanos;
+
+	private final long bindCount;
+
+	private final long propertyCount;
+
+	private final Histogram bindLatency;
+
+	private final Histogram propertiesPerBind;
+
+	private final Map<Class<?>, Histogram> bindLatencyByClass;
+
+	private final Map<Class<?>, Map<String, Histogram>> propertyLatency;
+
+	private final Map<Class<?>, Long> conversionFailures;
+
+	private final Map<String, CacheStats> caches;
+
+	BindingMetricsSnapshot(long elapsedNanos, long bindCount, long propertyCount, Histogram bindLatency,
+			Histogram propertiesPerBind, Map<Class<?>, Histogram> bindLatencyByClass,
+			Map<Class<?>, Map<String, Histogram>> propertyLatency, Map<Class<?>, Long> conversionFailures,
+			Map<String, CacheStats> caches) {
+		this.elapsedNanos = elapsedNanos;
+		this.bindCount = bindCount;
+		this.propertyCount = propertyCount;
+		this.bindLatency = bindLatency;
+		this.propertiesPerBind = propertiesPerBind;
+		this.bindLatencyByClass = Collections.unmodifiableMap(bindLatencyByClass);
+		this.propertyLatency = Collections.unmodifiableMap(propertyLatency);
+		this.conversionFailures = Collections.unmodifiableMap(conversionFailures);
+		this.caches = Collections.unmodifiableMap(caches);
+	}
+
+	/**
+	 * Returns the time since the metrics were created, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long getBindCount() {
+		return bindCount;
+	}
+
+	/**
+	 * Returns the mean number of binds per second since the metrics were created
+	 */
+	public double getBindsPerSecond() {
+		return elapsedNanos <= 0 ? 0.0 : bindCount * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * Returns the number of properties of all binds
+	 */
+	public long getPropertyCount() {
+		return propertyCount;
+	}
+
+	/**
+	 * Returns the distribution of the number of properties per bind
+	 */
+	public Histogram getPropertiesPerBind() {
+		return propertiesPerBind;
+	}
+
+	/**
+	 * Returns the distribution of the bind latency of all classes, in nanoseconds
+	 */
+	public Histogram getBindLatency() {
+		return bindLatency;
+	}
+
+	/**
+	 * Returns the bind latency distribution of each bean class
+	 */
+	public Map<Class<?>, Histogram> getBindLatencyByClass() {
+		return bindLatencyByClass;
+	}
+
+	/**
+	 * Returns the latency distribution of each property of the given class,
+	 * empty if none was recorded
+	 */
+	public Map<String, Histogram> getPropertyLatency(Class<?> beanClass) {
+		Map<String, Histogram> latency = propertyLatency.get(beanClass);
+		return latency == null ? Collections.emptyMap() : Collections.unmodifiableMap(latency);
+	}
+
+	/**
+	 * Returns the number of conversion failures by target type
+	 */
+	public Map<Class<?>, Long> getConversionFailures() {
+		return conversionFailures;
+	}
+
+	/**
+	 * Returns the lookups of each cache, by cache name
+	 */
+	public Map<String, CacheStats> getCaches() {
+		return caches;
+	}
+
+	/**
+	 * Returns the hit rate of the named cache, between 0 and 1, or 0 if it had no lookups
+	 */
+	public double getCacheHitRate(String cache) {
+		CacheStats stats = caches.get(cache);
+		return stats == null ? 0.0 : stats.getHitRate();
+	}
+
+	@Override
+	public String toString() {
+		return "BindingMetricsSnapshot{binds=" + bindCount + ", bindsPerSecond=" + getBindsPerSecond()
+				+ ", bindLatency=" + bindLatency + ", conversionFailures=" + conversionFailures + ", caches="
+				+ caches + "}";
+	}
+
+	/**
+	 * A copy of a histogram with a bucket per power of two. The percentiles
+	 * are the upper bound of their bucket, so they are accurate up to a factor
+	 * of two.
+	 */
+	public static final class Histogram {
+
+		private final long count;
+
+		private final long sum;
+
+		private final long max;
+
+		private final long[] buckets;
+
+		Histogram(long count, long sum, long max, long[] buckets) {
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+			this.buckets = buckets;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getSum() {
+			return sum;
+		}
+
+		public long getMax() {
+			return max;
+		}
+
+		public double getMean() {
+			return count == 0 ? 0.0 : (double) sum / count;
+		}
+
+		/**
+		 * Returns the value below which the given fraction of the values fall.
+		 *
+		 * @param fraction between 0 and 1
+		 * @throws IllegalArgumentException if the fraction is out of range
+		 */
+		public long getPercentile(double fraction) {
+			if (fraction < 0.0 || fraction > 1.0) {
+				throw new IllegalArgumentException("The fraction must be between 0 and 1: " + fraction);
+			}
+			long rank = (long) Math.ceil(fraction * count);
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank && seen > 0) {
+					long upperBound = i == 0 ? 0L : i >= 64 ? Long.MAX_VALUE : (1L << i) - 1;
+					return Math.min(upperBound, max);
+				}
+			}
+			return max;
+		}
+
+		/**
+		 * Returns the count of each bucket. Bucket {@code i} counts the values
+		 * of {@code i} significant bits.
+		 */
+		public long[] getBuckets() {
+			return Arrays.copyOf(buckets, buckets.length);
+		}
+
+		@Override
+		public String toString() {
+			return "Histogram{count=" + count + ", mean=" + getMean() + ", p50=" + getPercentile(0.5) + ", p99="
+					+ getPercentile(0.99) + ", max=" + max + "}";
+		}
+	}
+
+	/**
+	 * The lookups of a cache
+	 */
+	public static final class CacheStats {
+
+		private final long hits;
+
+		private final long misses;
+
+		CacheStats(long hits, long misses) {
+			this.hits = hits;
+			this.misses = misses;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		public long getMisses() {
+			return misses;
+		}
+
+		public double getHitRate() {
+			long lookups = hits + misses;
+			return lookups == 0 ? 0.0 : (double) hits / lookups;
+		}
+
+		@Override
+		public String toString() {
+			return "CacheStats{hits=" + hits + ", misses=" + misses + "}";
+		}
+	}
+}
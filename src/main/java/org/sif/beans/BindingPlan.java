@@ -0,0 +1,254 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.remove;
+import static org.sif.beans.BeanPropertiesSetter.DISSOCIATE_PREFIX;
+
+/**
+ * A precompiled sequence of binding steps for a given bean class and a given
+ * set of parameter keys.
+ * <p>
+ * Each step holds everything {@link BeanPropertiesSetter} used to work out on
+ * every call: the real property name (without the {@link
+ * BeanPropertiesSetter#DISSOCIATE_PREFIX}), the dissociate flag, the
+ * readability of the property and the resolved {@link PropertySetter}. Running
+ * a plan does no introspection for simple properties. Nested properties are
+ * still checked for readability against each bean, since it depends on the
+ * intermediate values. The ignore directives of each call are resolved into
+ * a {@link BitSet} over the steps, see {@link BindingDirectives}.
+ * </p>
+ * <p>
+ * When enabled and a {@link GeneratedPropertiesSetter} exists for the bean
+ * class, the properties it handles are set through it, ahead of the factory setters.
+ * </p>
+ * Plans are immutable and can be shared between threads.
+ *
+ * @param <T> the bean type
+ * @param <I> the bean primary key type
+ */
+final class BindingPlan<T, I> {
+
+	private static final Logger log = LoggerFactory.getLogger(BindingPlan.class);
+
+	private final Class<?> beanClass;
+
+	private final Set<String> keys;
+
+	private final Step<T, I>[] steps;
+
+	/**
+	 * The index of the step of each key, if the keys have directives, otherwise null
+	 */
+	private final Map<String, Integer> stepIndexes;
+
+	private BindingPlan(Class<?> beanClass, Set<String> keys, Step<T, I>[] steps,
+			Map<String, Integer> stepIndexes) {
+		this.beanClass = beanClass;
+		this.keys = keys;
+		this.steps = steps;
+		this.stepIndexes = stepIndexes;
+	}
+
+	/**
+	 * Compiles a plan for the class of the given bean and the given parameter
+	 * keys. The bean is only used to resolve readability and setters.
+	 *
+	 * @param bean    a sample bean of the class the plan is compiled for
+	 * @param keys    the parameter keys
+	 * @param factory the factory used to resolve the {@link PropertySetter} of each property
+	 * @param useGenerated whether to use the {@link GeneratedPropertiesSetter} of the bean class, if any
+	 * @return the compiled plan
+	 */
+	static <T, I> BindingPlan<T, I> compile(T bean, Set<String> keys, PropertySetterFactory<T, I> factory,
+			boolean useGenerated) {
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Step<T, I>[] steps = new Step[keys.size()];
+		@SuppressWarnings("unchecked")
+		GeneratedPropertiesSetter<T> generated = useGenerated
+				? GeneratedPropertiesSetter.forClass((Class<T>) bean.getClass()) : null;
+		boolean hasDirectives = false;
+		int count = 0;
+		for (String key : keys) {
+			if (BindingDirectives.isDirective(key)) {
+				hasDirectives = true;
+			}
+			String property = key;
+			boolean dissociate = false;
+			if (property.startsWith(DISSOCIATE_PREFIX)) {
+				property = remove(property, DISSOCIATE_PREFIX);
+				dissociate = true;
+			}
+			if (generated != null && !dissociate && generated.handles(property)) {
+				steps[count++] = new Step<>(key, property, false, Readability.READABLE, null, null, generated);
+				continue;
+			}
+			Readability readability;
+			PropertySetter<T, I> setter = null;
+			PropertyPath path = null;
+			if (Classes.isNested(property) || bean instanceof DynaBean) {
+				// Depends on the bean state, so it is checked on every run
+				readability = Readability.CHECK;
+				path = compilePath(bean, property);
+			} else if (isReadable(bean, property)) {
+				readability = Readability.READABLE;
+			} else {
+				readability = Readability.NOT_READABLE;
+			}
+			if (readability != Readability.NOT_READABLE) {
+				setter = factory.getFor(bean, property);
+			}
+			steps[count++] = new Step<>(key, property, dissociate, readability, path, setter, null);
+		}
+		Map<String, Integer> stepIndexes = null;
+		if (hasDirectives) {
+			stepIndexes = new HashMap<>();
+			for (int i = 0; i < count; i++) {
+				stepIndexes.put(steps[i].key, i);
+			}
+		}
+		Set<String> keysCopy = Collections.unmodifiableSet(new HashSet<>(keys));
+		return new BindingPlan<>(bean.getClass(), keysCopy, steps, stepIndexes);
+	}
+
+	/**
+	 * Returns the compiled path of the given nested property of a regular
+	 * bean, or null if it is checked through {@link PropertyUtils}
+	 */
+	private static PropertyPath compilePath(Object bean, String property) {
+		if (!BeanIntrospection.supports(bean)) {
+			return null;
+		}
+		try {
+			return PropertyPath.of(bean.getClass(), property);
+		} catch (IllegalArgumentException ex) {
+			// Malformed path, left for PropertyUtils to reject
+			return null;
+		}
+	}
+
+	private static boolean isReadable(Object bean, String property) {
+		if (BeanIntrospection.supports(bean) && StringUtils.containsNone(property, '[', '(')) {
+			return BeanIntrospection.forClass(bean.getClass()).isReadable(property);
+		}
+		return PropertyUtils.isReadable(bean, property);
+	}
+
+	/**
+	 * Runs this plan against the given bean.
+	 *
+	 * @param bean       the bean to set the properties
+	 * @param parameters the parameters. Must have exactly the keys this plan was compiled for
+	 */
+	void execute(T bean, Map<String, Object> parameters) {
+		execute(bean, parameters, BindingMetrics.NOOP);
+	}
+
+	/**
+	 * Runs this plan against the given bean, recording the latency of each
+	 * property in the metrics if they are enabled.
+	 *
+	 * @param bean       the bean to set the properties
+	 * @param parameters the parameters. Must have exactly the keys this plan was compiled for
+	 * @param metrics    the metrics
+	 */
+	void execute(T bean, Map<String, Object> parameters, BindingMetrics metrics) {
+		boolean timed = metrics.isEnabled();
+		BitSet ignored = stepIndexes != null ? BindingDirectives.ignoredSteps(parameters, stepIndexes) : null;
+		for (int i = 0; i < steps.length; i++) {
+			Step<T, I> step = steps[i];
+			if (ignored != null && ignored.get(i)) {
+				if (Debugger.TRACE) {
+					log.debug("Ignoring property [{}]", step.key);
+				}
+				continue;
+			}
+			Object parameterValue = parameters.get(step.key);
+			if (Debugger.TRACE && log.isDebugEnabled()) {
+				log.debug("Handling property: [{}] with value: [{}]", step.key, Debugger.lazy(parameterValue));
+			}
+			if (!step.isReadable(bean)) {
+				log.warn("The property [{}] is not readable on bean [{}]", step.property, bean);
+				continue;
+			}
+			long start = timed ? System.nanoTime() : 0L;
+			if (step.generated != null) {
+				step.generated.setConvertedProperty(bean, step.property, parameterValue);
+			} else if (step.dissociate) {
+				// unset the property
+				step.setter.unsetProperty(bean, step.property, parameterValue);
+			} else {
+				// set the property
+				step.setter.setProperty(bean, step.property, parameterValue);
+			}
+			if (timed) {
+				metrics.recordProperty(beanClass, step.property, System.nanoTime() - start);
+			}
+		}
+	}
+
+	Class<?> getBeanClass() {
+		return beanClass;
+	}
+
+	Set<String> getKeys() {
+		return keys;
+	}
+
+	private enum Readability {
+		READABLE, NOT_READABLE, CHECK
+	}
+
+	private static final class Step<T, I> {
+
+		final String key;
+
+		final String property;
+
+		final boolean dissociate;
+
+		final Readability readability;
+
+		/**
+		 * The compiled path of the nested properties of regular beans, checked
+		 * on every run
+		 */
+		final PropertyPath path;
+
+		final PropertySetter<T, I> setter;
+
+		final GeneratedPropertiesSetter<T> generated;
+
+		Step(String key, String property, boolean dissociate, Readability readability, PropertyPath path,
+				PropertySetter<T, I> setter, GeneratedPropertiesSetter<T> generated) {
+			this.key = key;
+			this.property = property;
+			this.dissociate = dissociate;
+			this.readability = readability;
+			this.path = path;
+			this.setter = setter;
+			this.generated = generated;
+		}
+
+		boolean isReadable(Object bean) {
+			if (readability == Readability.CHECK) {
+				if (path != null) {
+					return path.checkReadable(bean);
+				}
+				return PropertyUtils.isReadable(bean, property);
+			}
+			return readability == Readability.READABLE;
+		}
+	}
+}
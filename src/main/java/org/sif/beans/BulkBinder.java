@@ -0,0 +1,201 @@
+package org.sif.beans;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Binds streams of parameter maps into new bean instances.
+ * <p>
+ * Each row is bound into a new bean by the configured {@link PropertiesSetter}.
+ * With a {@link BeanPropertiesSetter}, the {@link BindingPlan} of the previous
+ * row is reused as long as the rows have the same keys, so a stream of rows
+ * with the same shape compiles and looks up a single plan.
+ * </p>
+ * <p>
+ * The returned streams are lazy and keep the parallelism and ordering of the
+ * given ones: call {@link Stream#parallel()} or {@link Stream#unordered()} on
+ * the rows to split the work. {@link #bindAll(Class, Stream, Consumer, boolean)}
+ * runs the binding in the binder {@link ForkJoinPool}, so its parallelism can
+ * be bounded independently of the common pool.
+ * </p>
+ * The binder is thread safe, provided the properties setter and the factory of
+ * its property setters are.
+ *
+ * @param <T> the bean type
+ * @param <I> the bean primary key type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+@Named
+public class BulkBinder<T, I> {
+
+	private PropertiesSetter<T> propertiesSetter;
+
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	public BulkBinder() {
+	}
+
+	public BulkBinder(PropertiesSetter<T> propertiesSetter) {
+		this.propertiesSetter = propertiesSetter;
+	}
+
+	/**
+	 * Binds each row into a new instance of the bean class, created through its
+	 * no arguments constructor.
+	 *
+	 * @param beanClass the bean class
+	 * @param rows      the parameter maps, one per bean
+	 * @return the lazy stream of bound beans
+	 * @throws IllegalArgumentException if the bean class has no accessible no arguments constructor
+	 */
+	public Stream<T> bind(Class<T> beanClass, Stream<Map<String, Object>> rows) {
+		return bind(instantiator(beanClass), rows);
+	}
+
+	/**
+	 * Binds each row into a new bean created by the given supplier.
+	 *
+	 * @param beanSupplier creates the beans to bind
+	 * @param rows         the parameter maps, one per bean
+	 * @return the lazy stream of bound beans
+	 */
+	public Stream<T> bind(Supplier<? extends T> beanSupplier, Stream<Map<String, Object>> rows) {
+		return rows.map(binder(beanSupplier));
+	}
+
+	/**
+	 * Binds each row of the iterator into a new instance of the bean class.
+	 *
+	 * @param beanClass the bean class
+	 * @param rows      the parameter maps, one per bean
+	 * @param parallel  whether the returned stream is parallel
+	 * @return the lazy, ordered stream of bound beans
+	 */
+	public Stream<T> bind(Class<T> beanClass, Iterator<Map<String, Object>> rows, boolean parallel) {
+		Stream<Map<String, Object>> stream = StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), parallel);
+		return bind(beanClass, stream);
+	}
+
+	/**
+	 * Binds all rows in parallel, in the binder {@link ForkJoinPool}, passing
+	 * each bound bean to the sink. Returns when all rows are bound.
+	 *
+	 * @param beanClass the bean class
+	 * @param rows      the parameter maps, one per bean
+	 * @param sink      receives the bound beans. Must be thread safe if the output is unordered
+	 * @param ordered   whether the beans are passed to the sink in the rows order, one at a time
+	 * @throws IllegalArgumentException if binding a row fails
+	 */
+	public void bindAll(Class<T> beanClass, Stream<Map<String, Object>> rows, Consumer<? super T> sink,
+			boolean ordered) {
+		Stream<T> beans = bind(beanClass, ordered ? rows.parallel() : rows.parallel().unordered());
+		try {
+			if (ordered) {
+				pool.submit(() -> beans.forEachOrdered(sink)).get();
+			} else {
+				pool.submit(() -> beans.forEach(sink)).get();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalArgumentException("Interrupted while binding the rows", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalArgumentException(ex.getCause().toString(), ex.getCause());
+		}
+	}
+
+	/**
+	 * Returns the function binding a row into a new bean. It remembers the last
+	 * plan used, so rows with the same keys skip the plan cache lookup.
+	 */
+	private Function<Map<String, Object>, T> binder(Supplier<? extends T> beanSupplier) {
+		PropertiesSetter<T> setter = propertiesSetter;
+		if (setter == null) {
+			throw new IllegalArgumentException("No properties setter was set for the bulk binder");
+		}
+		if (!(setter instanceof BeanPropertiesSetter)) {
+			return row -> {
+				T bean = beanSupplier.get();
+				setter.setAllProperties(bean, row);
+				return bean;
+			};
+		}
+		@SuppressWarnings("unchecked")
+		BeanPropertiesSetter<T, I> beanSetter = (BeanPropertiesSetter<T, I>) setter;
+		return new Function<Map<String, Object>, T>() {
+
+			// Shared by the threads of a parallel stream. A stale plan is only a
+			// cache miss, as plans are immutable.
+			private volatile BindingPlan<T, I> lastPlan;
+
+			@Override
+			public T apply(Map<String, Object> row) {
+				T bean = beanSupplier.get();
+				Set<String> keys = row.keySet();
+				BindingPlan<T, I> plan = lastPlan;
+				if (plan == null || plan.getBeanClass() != bean.getClass() || !plan.getKeys().equals(keys)) {
+					plan = beanSetter.getPlan(bean, keys);
+					lastPlan = plan;
+				}
+				beanSetter.execute(plan, bean, row);
+				return bean;
+			}
+		};
+	}
+
+	private static <T> Supplier<T> instantiator(Class<T> beanClass) {
+		Constructor<T> constructor;
+		try {
+			constructor = beanClass.getConstructor();
+		} catch (NoSuchMethodException ex) {
+			throw new IllegalArgumentException("The class [" + beanClass + "] has no public no arguments constructor");
+		}
+		return () -> {
+			try {
+				return constructor.newInstance();
+			} catch (InvocationTargetException ex) {
+				throw new IllegalArgumentException(ex.getCause().toString(), ex.getCause());
+			} catch (ReflectiveOperationException ex) {
+				throw new IllegalArgumentException("Could not instantiate [" + beanClass + "]: " + ex, ex);
+			}
+		};
+	}
+
+	public PropertiesSetter<T> getPropertiesSetter() {
+		return propertiesSetter;
+	}
+
+	@Inject
+	public void setPropertiesSetter(BeanPropertiesSetter<T, I> propertiesSetter) {
+		this.propertiesSetter = propertiesSetter;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Sets the pool used by {@link #bindAll(Class, Stream, Consumer, boolean)}.
+	 * The common pool is used by default.
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+}
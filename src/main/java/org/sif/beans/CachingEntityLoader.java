@@ -0,0 +1,94 @@
+package org.sif.beans;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link EntityLoader} serving entities from a {@link RelationCache} and
+ * loading only the missing ones from the data store.
+ * <p>
+ * The ids not found in the cache are loaded with a single call to the
+ * delegate loader, and the loaded entities are cached. Ids with no entity are
+ * not cached, so they reach the data store every time.
+ * </p>
+ * By default a {@link TinyLfuRelationCache} of {@link #DEFAULT_MAXIMUM_SIZE}
+ * entities is used.
+ * <p>
+ * It is not a managed bean, as it would be a second {@link EntityLoader}
+ * next to the application one. To use it, wrap the application loader and
+ * declare the caching loader as the one injected into the relation setters.
+ * </p>
+ *
+ * @param <I> the entities primary key type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public class CachingEntityLoader<I> implements EntityLoader<I> {
+
+	private static final Logger log = LoggerFactory.getLogger(CachingEntityLoader.class);
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	private EntityLoader<I> delegate;
+
+	private RelationCache cache = new TinyLfuRelationCache(DEFAULT_MAXIMUM_SIZE);
+
+	public CachingEntityLoader() {
+	}
+
+	public CachingEntityLoader(EntityLoader<I> delegate, RelationCache cache) {
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public <E> Map<I, E> loadAll(Class<E> entityClass, Collection<I> ids) {
+		EntityLoader<I> loader = delegate;
+		if (loader == null) {
+			throw new IllegalArgumentException("No entity loader was set for the caching entity loader");
+		}
+		Map<I, E> result = new HashMap<>();
+		List<I> missing = new ArrayList<>();
+		for (I id : ids) {
+			E entity = cache.get(entityClass, id);
+			if (entity != null) {
+				result.put(id, entity);
+			} else {
+				missing.add(id);
+			}
+		}
+		if (!missing.isEmpty()) {
+			log.debug("Loading {} of {} entities of [{}] missing from the cache", missing.size(), ids.size(),
+					entityClass);
+			for (Map.Entry<I, E> entry : loader.loadAll(entityClass, missing).entrySet()) {
+				cache.put(entityClass, entry.getKey(), entry.getValue());
+				result.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	public EntityLoader<I> getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Sets the loader of the entities missing from the cache
+	 */
+	public void setDelegate(EntityLoader<I> delegate) {
+		this.delegate = delegate;
+	}
+
+	public RelationCache getCache() {
+		return cache;
+	}
+
+	public void setCache(RelationCache cache) {
+		this.cache = cache;
+	}
+}
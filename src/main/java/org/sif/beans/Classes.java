@@ -2,7 +2,6 @@ package org.sif.beans;
 
 import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
@@ -34,21 +33,10 @@ public class Classes {
 
 	/**
 	 * Returns the field in the target bean. This method will recurse to supper
-	 * classes.
+	 * classes. Resolved fields are cached per class.
 	 */
 	public static Field getField(Class<?> beanClass, String fieldName) {
-		if (isNested(fieldName)) {
-			String lastPart = fieldName.substring(fieldName.indexOf(".") + 1);
-			String firstPart = fieldName.substring(0, fieldName.indexOf("."));
-			Class<?> firstType = getFieldClass(beanClass, firstPart);
-			return getField(firstType, lastPart);
-		}
-		Field field = FieldUtils.getField(beanClass, fieldName, true);
-		if (field != null) {
-			return field;
-		} else {
-			throw new IllegalArgumentException("Field [" + fieldName + "] not found in [" + beanClass + "]");
-		}
+		return FieldMetadata.of(beanClass).getField(fieldName);
 	}
 
 	/**
@@ -81,34 +69,45 @@ public class Classes {
 		return isPrimitiveArrayType(clazz) && clazz.getComponentType() == int.class;
 	}
 
+	/**
+	 * Returns the value of the given property, which can be nested, indexed or
+	 * mapped, or null if the value of any of its parts is null. The path is
+	 * read through a cached {@link PropertyPath}, so null beans on the way
+	 * end the read with no exception.
+	 *
+	 * @throws IllegalArgumentException if the bean is null, or a property is unknown or not readable
+	 */
 	public static Object getPropertyIgnoreNull(Object bean, String property) {
-		try {
-			if (property.indexOf(".") != -1) {
-				try {
-					return PropertyUtils.getNestedProperty(bean, property);
-				} catch (org.apache.commons.beanutils.NestedNullException nne) {
-					return null;
-				}
-			} else {
-				return PropertyUtils.getProperty(bean, property);
-			}
-		} catch (IllegalArgumentException ex) {
-			if (ex.getMessage().trim().indexOf("Null property value for") != -1) {
-				// Ignoring a null property
-				return null;
-			}
-			throw ex;
-		} catch (Exception ex) {
-			throw new IllegalArgumentException(ex.toString(), ex);
+		if (bean == null) {
+			throw new IllegalArgumentException("No bean specified");
+		}
+		return PropertyPath.of(bean.getClass(), property).get(bean);
+	}
+
+	/**
+	 * Reads the value of the given property, which can be nested, indexed or
+	 * mapped, telling an absent path apart from a null value, as
+	 * {@link PropertyPath#read(Object)} does.
+	 *
+	 * @throws IllegalArgumentException if the bean is null, or a property is unknown or not readable
+	 */
+	public static PropertyValue readProperty(Object bean, String property) {
+		if (bean == null) {
+			throw new IllegalArgumentException("No bean specified");
 		}
+		return PropertyPath.of(bean.getClass(), property).read(bean);
 	}
 
 	/**
-	 * Returns the bean property names.
+	 * Returns the bean property names. For regular beans the returned
+	 * collection is shared and can't be modified.
 	 * @param bean the bean to verify the properties
 	 * @return a collection of property names
 	 */
 	public static Collection<String> getPropertyNames(Object bean) {
+		if (BeanIntrospection.supports(bean)) {
+			return BeanIntrospection.forClass(bean.getClass()).getPropertyNames();
+		}
 		Collection<String> names = new ArrayList<String>();
 		PropertyDescriptor[] pds = PropertyUtils.getPropertyDescriptors(bean);
 		for (int i = 0; i < pds.length; names.add(pds[i++].getName()));
@@ -0,0 +1,190 @@
+package org.sif.beans;
+
+import org.sif.beans.converters.IgnoreConversionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A {@link PropertySetter} for {@link javax.persistence.OneToMany} and
+ * {@link javax.persistence.ManyToMany} collection relations, set from lists
+ * of ids.
+ * <p>
+ * The collection is not cleared and refilled: its members are indexed by id,
+ * and only the delta is applied. Setting a property removes the members whose
+ * ids are not in the value, members with no id included, and adds the
+ * entities of the new ids, all loaded with a single
+ * {@link EntityLoader#loadAll(Class, Collection)} call. Unsetting it, through
+ * the {@link BeanPropertiesSetter#DISSOCIATE_PREFIX}, removes the members
+ * with the given ids. The members that stay are not touched, so a persistence
+ * provider only writes the changed rows. Integral ids are indexed unboxed, see
+ * {@link IdIndex}.
+ * </p>
+ * Register it in the {@link BeanPropertySetterFactory} for the
+ * {@link PropertyKind#ONE_TO_MANY} and {@link PropertyKind#MANY_TO_MANY}
+ * kinds. It is thread safe, provided the entity loader is.
+ *
+ * @param <T> the bean type
+ * @param <I> the entities primary key type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+@Named("CollectionRelationSetter")
+public class CollectionRelationSetter<T, I> implements PropertySetter<T, I> {
+
+	private static final Logger log = LoggerFactory.getLogger(CollectionRelationSetter.class);
+
+	private EntityLoader<I> entityLoader;
+
+	private PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+
+	/**
+	 * Makes the collection relation hold exactly the entities with the given
+	 * ids. Empty values leave the collection untouched.
+	 *
+	 * @throws IllegalArgumentException if the property is not a collection relation, or an entity is not found.
+	 *                                  The collection is not changed in this case
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T setProperty(T bean, String property, Object value) {
+		RelationBatchBinder.Relation relation = relation(bean, property);
+		Collection<?> ids;
+		try {
+			ids = converterUtil.valueListToCollection(value, List.class, relation.idType);
+		} catch (IgnoreConversionException ex) {
+			return bean;
+		}
+		setMembers(bean, relation, ids, added -> load(relation, (List<I>) added), converterUtil.collectionUtil());
+		return bean;
+	}
+
+	/**
+	 * Makes the collection relation hold exactly the entities with the given
+	 * ids, removing the members whose ids are not in them and adding the
+	 * entities of the new ids, returned by the given function in the same
+	 * order. A null collection is handled as an empty one, and replaced by a
+	 * new collection only once the entities are found, so failures leave the
+	 * bean untouched. Used by {@link RelationBatchBinder} too, with the
+	 * entities loaded for the whole batch.
+	 *
+	 * @param entities returns the entities of the ids missing from the collection
+	 */
+	@SuppressWarnings("unchecked")
+	static void setMembers(Object bean, RelationBatchBinder.Relation relation, Collection<?> ids,
+			Function<List<Object>, List<Object>> entities, CollectionUtil<?> collectionUtil) {
+		Collection<Object> members = (Collection<Object>) relation.accessor.get(bean);
+		IdIndex current = IdIndex.forType(relation.idType, (members == null ? 0 : members.size()) + ids.size());
+		if (members != null) {
+			for (Object member : members) {
+				current.add(relation.idAccessor.get(member));
+			}
+		}
+		IdIndex wanted = IdIndex.forType(relation.idType, ids.size());
+		List<Object> added = new ArrayList<>();
+		for (Object id : ids) {
+			wanted.add(id);
+			if (id != null && current.add(id)) {
+				added.add(id);
+			}
+		}
+		List<Object> addedEntities = added.isEmpty() ? Collections.emptyList() : entities.apply(added);
+		if (members == null) {
+			members = (Collection<Object>) collectionUtil.newCollection(relation.accessor.getType());
+			relation.accessor.set(bean, members);
+		}
+		int size = members.size();
+		members.removeIf(member -> !wanted.contains(relation.idAccessor.get(member)));
+		int removed = size - members.size();
+		members.addAll(addedEntities);
+		log.debug("Relation [{}] of [{}]: {} members removed, {} added", relation.accessor.getName(),
+				bean.getClass(), removed, addedEntities.size());
+	}
+
+	/**
+	 * Removes the members with the given ids from the collection relation.
+	 *
+	 * @throws IllegalArgumentException if the property is not a collection relation
+	 */
+	@Override
+	public T unsetProperty(T bean, String property, Object value) {
+		RelationBatchBinder.Relation relation = relation(bean, property);
+		Collection<?> ids;
+		try {
+			ids = converterUtil.valueListToCollection(value, List.class, relation.idType);
+		} catch (IgnoreConversionException ex) {
+			return bean;
+		}
+		if (ids.isEmpty()) {
+			return bean;
+		}
+		IdIndex removed = IdIndex.forType(relation.idType, ids.size());
+		for (Object id : ids) {
+			removed.add(id);
+		}
+		Object current = relation.accessor.get(bean);
+		if (current != null) {
+			((Collection<?>) current).removeIf(member -> removed.contains(relation.idAccessor.get(member)));
+		}
+		return bean;
+	}
+
+	private static RelationBatchBinder.Relation relation(Object bean, String property) {
+		RelationBatchBinder.Relation relation = RelationBatchBinder.relation(bean.getClass(), property);
+		if (relation == null || !relation.collection) {
+			throw new IllegalArgumentException("The property [" + property + "] of [" + bean.getClass()
+					+ "] is not a collection relation");
+		}
+		if (relation.idAccessor == null || !relation.accessor.isReadable()) {
+			throw new IllegalArgumentException("The property [" + property + "] of [" + bean.getClass()
+					+ "] or the id of its entities can't be read");
+		}
+		return relation;
+	}
+
+	/**
+	 * Loads the entities of the given ids, in the same order
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Object> load(RelationBatchBinder.Relation relation, List<I> ids) {
+		List<Object> entities = new ArrayList<>(ids.size());
+		EntityLoader<I> loader = entityLoader;
+		if (loader == null) {
+			throw new IllegalArgumentException("No entity loader was set for the collection relation setter");
+		}
+		Map<I, ?> loaded = loader.loadAll((Class<Object>) relation.targetType, ids);
+		for (I id : ids) {
+			Object entity = loaded.get(id);
+			if (entity == null) {
+				throw new IllegalArgumentException("Entity [" + relation.targetType.getName() + "] with id [" + id
+						+ "] not found");
+			}
+			entities.add(entity);
+		}
+		return entities;
+	}
+
+	public EntityLoader<I> getEntityLoader() {
+		return entityLoader;
+	}
+
+	@Inject
+	public void setEntityLoader(EntityLoader<I> entityLoader) {
+		this.entityLoader = entityLoader;
+	}
+
+	/**
+	 * Sets the converter of the ids. By default a new one is used.
+	 */
+	@Inject
+	public void setConverterUtil(PropertyValueConverterUtil<?> converterUtil) {
+		this.converterUtil = converterUtil;
+	}
+}
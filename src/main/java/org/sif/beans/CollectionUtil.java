@@ -1,12 +1,11 @@
 package org.sif.beans;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
 import javax.inject.Named;
+import java.lang.reflect.Array;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -14,14 +13,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 
-import static org.sif.beans.Classes.classFor;
-import static org.sif.beans.Debugger.debug;
+import static org.sif.beans.Debugger.TRACE;
+import static org.sif.beans.Debugger.lazy;
+import static org.sif.beans.Debugger.typeName;
 
 /**
  * Contains utility methods for handling collection of values
@@ -45,18 +46,40 @@ public class CollectionUtil<T> {
 
 	private Logger log = LoggerFactory.getLogger(CollectionUtil.class);
 
+	private volatile PropertyValueConverterUtil converterUtil;
+
+	/**
+	 * Sets the converter util used to convert the collection elements. By
+	 * default one is created on first use.
+	 */
+	@Inject
+	public void setConverterUtil(PropertyValueConverterUtil converterUtil) {
+		this.converterUtil = converterUtil;
+	}
+
+	PropertyValueConverterUtil converterUtil() {
+		PropertyValueConverterUtil converterUtil = this.converterUtil;
+		if (converterUtil == null) {
+			converterUtil = new PropertyValueConverterUtil();
+			converterUtil.setCollectionUtil(this);
+			this.converterUtil = converterUtil;
+		}
+		return converterUtil;
+	}
+
 	/**
 	 * If the given object is a collection, returns the first element on the collection.
+	 * Only the first element is read and converted.
 	 *
 	 * @throws IllegalArgumentException if the provided value is not a collection.
 	 * @throws NoSuchElementException   if the provided collection is empty.
 	 */
+	@SuppressWarnings("unchecked")
 	public <T> T getFirstCollectionElement(final Object value, Class<T>... type) {
 		log.debug("Getting first element for: {} and type {}", value, type);
 		if (!isCollectionOfAnyType(value)) {
 			throw new IllegalArgumentException("The provided value (" + value + ") is not a collection");
 		} else {
-			PropertyValueConverterUtil converterUtil = new PropertyValueConverterUtil();
 			Class<?> finalType = String.class;
 			if (isNotMissing(type)) {
 				finalType = type[0];
@@ -67,13 +90,37 @@ public class CollectionUtil<T> {
 				finalType = arrayType;
 			}
 			log.debug("Getting first element collection for type {}", finalType);
-			Collection<T> collection = converterUtil.valueListToCollection(value, List.class, finalType);
-			if (!collection.isEmpty()) {
-				return collection.iterator().next();
-			} else {
-				throw new NoSuchElementException("The provided collection (" + value + ") is empty!");
+			if (Object.class.equals(finalType) && !isRawCollection(value) && !isArrayCollection(value)) {
+				// Comma separated values are not split for Object elements
+				return (T) converterUtil().convert(value.getClass(), value);
+			}
+			return (T) converterUtil().convertElement(finalType, peekFirstElement(value));
+		}
+	}
+
+	/**
+	 * Returns the first element of a collection, array or comma separated
+	 * values, trimmed, with no conversion.
+	 *
+	 * @throws NoSuchElementException if there are no elements
+	 */
+	private Object peekFirstElement(Object value) {
+		if (isRawCollection(value)) {
+			Iterator<?> iterator = ((Collection<?>) value).iterator();
+			if (iterator.hasNext()) {
+				return iterator.next();
+			}
+		} else if (isArrayCollection(value)) {
+			if (Array.getLength(value) > 0) {
+				return Array.get(value, 0);
+			}
+		} else {
+			CommaSeparatedTokenizer tokenizer = new CommaSeparatedTokenizer(asCharSequence(value));
+			if (tokenizer.next()) {
+				return tokenizer.token();
 			}
 		}
+		throw new NoSuchElementException("The provided collection (" + value + ") is empty!");
 	}
 
 	private <T> boolean isNotMissing(Class<T>[] type) {
@@ -107,35 +154,21 @@ public class CollectionUtil<T> {
 		if (value == null) {
 			return false;
 		}
-		String[] splitArray = StringUtils.split(String.valueOf(value), ',');
-		if (isEmptyOrOneElementArray(splitArray)) {
-			return false;
-		}
-		for (String item : splitArray) {
-			if (isNotNumber(StringUtils.trim(item))) {
-				return false;
-			}
-		}
-		return true;
+		return CommaSeparatedTokenizer.isNumberList(asCharSequence(value));
 	}
 
 	/**
 	 * Returns whether the provided value is a String representing a comma separated values of any type of elements.
 	 */
 	public boolean isStringCommaSeparatedArray(Object value) {
-		String[] splitArray = StringUtils.split(String.valueOf(value), ',');
-		if (isEmptyOrOneElementArray(splitArray)) {
-			return false;
-		}
-		return true;
-	}
-
-	private boolean isEmptyOrOneElementArray(String[] splitArray) {
-		return splitArray == null || ArrayUtils.isEmpty(splitArray) || splitArray.length == 1;
+		return CommaSeparatedTokenizer.hasSeveralTokens(asCharSequence(value));
 	}
 
-	private boolean isNotNumber(String item) {
-		return !NumberUtils.isNumber(item);
+	/**
+	 * Returns the value itself if it is a {@link CharSequence}, otherwise its string representation
+	 */
+	static CharSequence asCharSequence(Object value) {
+		return value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
 	}
 
 	/**
@@ -164,8 +197,7 @@ public class CollectionUtil<T> {
 		if (value == null) {
 			return true;
 		}
-		PropertyValueConverterUtil converterUtil = new PropertyValueConverterUtil();
-		Collection<T> collection = converterUtil.valueListToCollection(value, List.class, Object.class);
+		Collection<T> collection = converterUtil().valueListToCollection(value, List.class, Object.class);
 		return collection.isEmpty();
 	}
 
@@ -192,7 +224,7 @@ public class CollectionUtil<T> {
 	 * separated list of values. In the last case, it will be wrapped in a List of strings. Unlike
 	 * the {@link Arrays#asList(Object[])} method, it not act only on arrays. It will try to narrow
 	 * any value into a {@link java.util.List}. If the provided value is a {@link java.util.Collection},
-	 * or an array, it will be coerced into a {@link java.util.List}.
+	 * or an array, it will be coerced into a {@link java.util.List} of strings.
 	 *
 	 * @param value the value to be converted into a List
 	 * @return the value wrapped into a List.
@@ -201,20 +233,32 @@ public class CollectionUtil<T> {
 		if (value == null) {
 			return Collections.emptyList();
 		}
-		PropertyValueConverterUtil<T> converterUtil = new PropertyValueConverterUtil();
-		Class<?> elementType = String.class;
-		log.debug("Trying to transform value {}, of class {}, to List...", value, classFor(value));
-		if (isCollectionOfAnyType(value)) {
-			try {
-				elementType = getFirstCollectionElement(value, elementType).getClass();
-			} catch (Exception ex) {
-				log.warn("Could not infer the collection element type!");
-			}
-		} else {
-			elementType = value.getClass();
+		if (TRACE && log.isDebugEnabled()) {
+			log.debug("Trying to transform value {}, of class {}, to List...", lazy(value), typeName(value));
+		}
+		// The elements of collections are always read as strings, so there is
+		// nothing to infer from them
+		Class<?> elementType = isCollectionOfAnyType(value) ? String.class : value.getClass();
+		return asList(value, elementType);
+	}
+
+	/**
+	 * Returns the given value as a {@link java.util.List} of the given element type, converting
+	 * the value the same way {@link #asList(Object)} does. Callers knowing the element type should
+	 * prefer this method, as no type inference is done.
+	 *
+	 * @param value       the value to be converted into a List
+	 * @param elementType the type of the list elements
+	 * @return the value wrapped into a List.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> List<E> asList(Object value, Class<E> elementType) {
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		if (TRACE && log.isDebugEnabled()) {
+			log.debug("Converting value {} of class: {} to a List", lazy(value), elementType);
 		}
-		log.debug("Converting value {} of class: {} to a List", debug(value), elementType);
-		List<?> convertedValue = (List<?>) converterUtil.valueListToCollection(value, List.class, elementType);
-		return convertedValue;
+		return (List<E>) converterUtil().valueListToCollection(value, List.class, elementType);
 	}
 }
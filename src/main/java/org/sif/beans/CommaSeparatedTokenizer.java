@@ -0,0 +1,228 @@
+package org.sif.beans;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Single pass tokenizer for comma separated values, working directly on a
+ * {@link CharSequence}.
+ * <p>
+ * It splits the value the same way {@link org.apache.commons.lang3.StringUtils#split(String, char)}
+ * does, skipping the empty tokens between adjacent commas, and trims each
+ * token as {@link String#trim()} does. The tokens are only exposed as bounds
+ * over the original value, so classifying and parsing them doesn't build
+ * intermediate strings or arrays. Strings are only created when
+ * {@link #token()} is called.
+ * </p>
+ * A tokenizer can be reused for several values through
+ * {@link #reset(CharSequence)}. It is not thread safe.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class CommaSeparatedTokenizer {
+
+	static final char SEPARATOR = ',';
+
+	private CharSequence value;
+
+	private int position;
+
+	private int start;
+
+	private int end;
+
+	CommaSeparatedTokenizer(CharSequence value) {
+		reset(value);
+	}
+
+	/**
+	 * Restarts this tokenizer on the given value
+	 */
+	CommaSeparatedTokenizer reset(CharSequence value) {
+		this.value = value;
+		this.position = 0;
+		this.start = 0;
+		this.end = 0;
+		return this;
+	}
+
+	/**
+	 * Moves to the next token.
+	 *
+	 * @return false if there are no more tokens
+	 */
+	boolean next() {
+		int length = value.length();
+		while (position < length && value.charAt(position) == SEPARATOR) {
+			position++;
+		}
+		if (position == length) {
+			return false;
+		}
+		start = position;
+		while (position < length && value.charAt(position) != SEPARATOR) {
+			position++;
+		}
+		end = position;
+		while (start < end && value.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the current token, trimmed
+	 */
+	String token() {
+		return value.subSequence(start, end).toString();
+	}
+
+	/**
+	 * Returns whether the current token is a number, as
+	 * {@link NumberUtils#isNumber(String)} decides. Plain decimal integers are
+	 * recognized without creating a string.
+	 */
+	boolean isNumber() {
+		int i = start;
+		if (i < end && value.charAt(i) == '-') {
+			i++;
+		}
+		if (i == end) {
+			return false;
+		}
+		// Leading zeros are octal for NumberUtils, so they are left to it
+		if (value.charAt(i) != '0' || i + 1 == end) {
+			boolean digits = true;
+			for (int j = i; j < end && digits; j++) {
+				char c = value.charAt(j);
+				digits = c >= '0' && c <= '9';
+			}
+			if (digits) {
+				return true;
+			}
+		}
+		return NumberUtils.isNumber(token());
+	}
+
+	/**
+	 * Parses the current token as a long
+	 *
+	 * @throws org.sif.beans.converters.IgnoreConversionException if the token is blank
+	 * @throws org.apache.commons.beanutils.ConversionException if the token is not a long
+	 */
+	long toLong() {
+		return NumberParser.parseLong(value, start, end);
+	}
+
+	/**
+	 * Parses the current token as an int
+	 *
+	 * @throws org.sif.beans.converters.IgnoreConversionException if the token is blank
+	 * @throws org.apache.commons.beanutils.ConversionException if the token is not an int
+	 */
+	int toInt() {
+		return NumberParser.parseInt(value, start, end);
+	}
+
+	/**
+	 * Returns whether the value has at least two tokens. Stops on the second one.
+	 */
+	static boolean hasSeveralTokens(CharSequence value) {
+		CommaSeparatedTokenizer tokenizer = new CommaSeparatedTokenizer(value);
+		return tokenizer.next() && tokenizer.next();
+	}
+
+	/**
+	 * Returns whether the value has at least two tokens and all of them are
+	 * numbers. Stops on the first token that is not a number.
+	 */
+	static boolean isNumberList(CharSequence value) {
+		CommaSeparatedTokenizer tokenizer = new CommaSeparatedTokenizer(value);
+		int count = 0;
+		while (tokenizer.next()) {
+			if (!tokenizer.isNumber()) {
+				return false;
+			}
+			count++;
+		}
+		return count > 1;
+	}
+
+	/**
+	 * Parses all tokens of the value into a long array.
+	 *
+	 * @throws org.sif.beans.converters.IgnoreConversionException if a token is blank
+	 * @throws org.apache.commons.beanutils.ConversionException if a token is not a long
+	 */
+	static long[] toLongArray(CharSequence value) {
+		// There can't be more tokens than separators plus one
+		int maxTokens = 1;
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) == SEPARATOR) {
+				maxTokens++;
+			}
+		}
+		long[] result = new long[maxTokens];
+		int count = 0;
+		CommaSeparatedTokenizer tokenizer = new CommaSeparatedTokenizer(value);
+		while (tokenizer.next()) {
+			result[count++] = tokenizer.toLong();
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Returns a read only list of the tokens of the value. Only the token
+	 * bounds are computed upfront; each token string is created when it is
+	 * read.
+	 */
+	static List<String> tokens(CharSequence value) {
+		int[] bounds = new int[8];
+		int count = 0;
+		CommaSeparatedTokenizer tokenizer = new CommaSeparatedTokenizer(value);
+		while (tokenizer.next()) {
+			if (count * 2 == bounds.length) {
+				bounds = Arrays.copyOf(bounds, bounds.length * 2);
+			}
+			bounds[count * 2] = tokenizer.start;
+			bounds[count * 2 + 1] = tokenizer.end;
+			count++;
+		}
+		return new TokenList(value, bounds, count);
+	}
+
+	private static final class TokenList extends AbstractList<String> implements RandomAccess {
+
+		private final CharSequence value;
+
+		private final int[] bounds;
+
+		private final int size;
+
+		TokenList(CharSequence value, int[] bounds, int size) {
+			this.value = value;
+			this.bounds = bounds;
+			this.size = size;
+		}
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			return value.subSequence(bounds[index * 2], bounds[index * 2 + 1]).toString();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
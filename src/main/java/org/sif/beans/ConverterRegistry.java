@@ -0,0 +1,207 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.BooleanConverter;
+import org.apache.commons.beanutils.converters.ByteConverter;
+import org.apache.commons.beanutils.converters.DateConverter;
+import org.apache.commons.beanutils.converters.DoubleConverter;
+import org.apache.commons.beanutils.converters.FloatConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+import org.apache.commons.beanutils.converters.ShortConverter;
+import org.sif.beans.converters.IgnoreEmptyConverter;
+import org.sif.beans.converters.SerializableConverter;
+
+import javax.inject.Named;
+import java.io.File;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable registry of the {@link Converter}s used by
+ * {@link PropertyValueConverterUtil}.
+ * <p>
+ * The converters are registered once, when the registry is built, into a map
+ * that is never modified afterwards, so looking them up takes no locks. Unlike the
+ * global {@link ConvertUtils} registry, each registry is owned by the
+ * {@link PropertyValueConverterUtil}s it is injected into, and building one
+ * doesn't affect any other code.
+ * </p>
+ * <p>
+ * The types with no converter in the registry, like strings, big numbers,
+ * characters, files, URLs and arrays, are looked up in the global
+ * {@link ConvertUtils} registry, which is only read, so the converters the
+ * application registers there keep working. The standard commons-beanutils
+ * converters of these types, copied from a private {@link ConvertUtilsBean},
+ * are used when the global registry has none.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+@Named
+public class ConverterRegistry {
+
+	/**
+	 * The types whose commons-beanutils default converters, and the ones of
+	 * their arrays, are used when the global registry has no converter for them
+	 */
+	private static final Class<?>[] STANDARD_TYPES = {
+			Boolean.TYPE, Boolean.class, Byte.TYPE, Byte.class, Short.TYPE, Short.class, Integer.TYPE,
+			Integer.class, Long.TYPE, Long.class, Float.TYPE, Float.class, Double.TYPE, Double.class,
+			Character.TYPE, Character.class, String.class, BigDecimal.class, BigInteger.class, Class.class,
+			java.util.Date.class, Calendar.class, java.sql.Date.class, Time.class, Timestamp.class, File.class,
+			URL.class};
+
+	private static final Map<Class<?>, Converter> STANDARD_CONVERTERS = standardConverters();
+
+	private static final ConverterRegistry DEFAULT = new ConverterRegistry();
+
+	private final Map<Class<?>, Converter> converters;
+
+	/**
+	 * The types whose default converter was replaced
+	 */
+	private final Set<Class<?>> replacedTypes;
+
+	/**
+	 * Creates a registry with the default converters. The number, boolean and
+	 * date converters don't use default values, and throw
+	 * {@link org.sif.beans.converters.IgnoreConversionException} for empty
+	 * values.
+	 */
+	public ConverterRegistry() {
+		this(Collections.<Class<?>, Converter>emptyMap());
+	}
+
+	/**
+	 * Creates a registry with the default converters plus the given ones. The
+	 * given converters replace the default ones for the same types.
+	 *
+	 * @param additionalConverters the converters to register, by target type
+	 */
+	public ConverterRegistry(Map<Class<?>, Converter> additionalConverters) {
+		Map<Class<?>, Converter> converters = defaultConverters();
+		converters.putAll(additionalConverters);
+		this.converters = Collections.unmodifiableMap(converters);
+		this.replacedTypes = new HashSet<>(additionalConverters.keySet());
+	}
+
+	/**
+	 * Returns the shared registry with the default converters
+	 */
+	public static ConverterRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the commons-beanutils default converters of the standard types
+	 * and their arrays, taken from a new {@link ConvertUtilsBean}, so the
+	 * global registry is neither read nor changed
+	 */
+	private static Map<Class<?>, Converter> standardConverters() {
+		ConvertUtilsBean beanUtils = new ConvertUtilsBean();
+		Map<Class<?>, Converter> converters = new HashMap<>();
+		for (Class<?> type : STANDARD_TYPES) {
+			copy(beanUtils, type, converters);
+			copy(beanUtils, Array.newInstance(type, 0).getClass(), converters);
+		}
+		return converters;
+	}
+
+	private static void copy(ConvertUtilsBean beanUtils, Class<?> type, Map<Class<?>, Converter> converters) {
+		Converter converter = beanUtils.lookup(type);
+		if (converter != null) {
+			converters.put(type, converter);
+		}
+	}
+
+	private static Map<Class<?>, Converter> defaultConverters() {
+		Map<Class<?>, Converter> converters = new HashMap<>();
+		Converter booleanConverter = new IgnoreEmptyConverter(new BooleanConverter());
+		converters.put(Boolean.TYPE, booleanConverter);
+		converters.put(Boolean.class, booleanConverter);
+
+		Converter byteConverter = new IgnoreEmptyConverter(new ByteConverter());
+		converters.put(Byte.TYPE, byteConverter);
+		converters.put(Byte.class, byteConverter);
+
+		Converter shortConverter = new IgnoreEmptyConverter(new ShortConverter());
+		converters.put(Short.TYPE, shortConverter);
+		converters.put(Short.class, shortConverter);
+
+		Converter intConverter = new IgnoreEmptyConverter(new IntegerConverter());
+		converters.put(Integer.TYPE, intConverter);
+		converters.put(Integer.class, intConverter);
+
+		Converter longConverter = new IgnoreEmptyConverter(new LongConverter());
+		converters.put(Long.TYPE, longConverter);
+		converters.put(Long.class, longConverter);
+
+		Converter floatConverter = new IgnoreEmptyConverter(new FloatConverter());
+		converters.put(Float.TYPE, floatConverter);
+		converters.put(Float.class, floatConverter);
+
+		Converter doubleConverter = new IgnoreEmptyConverter(new DoubleConverter());
+		converters.put(Double.TYPE, doubleConverter);
+		converters.put(Double.class, doubleConverter);
+
+		Converter dateConverter = new IgnoreEmptyConverter(new DateConverter());
+		converters.put(java.util.Date.class, dateConverter);
+		converters.put(java.sql.Date.class, dateConverter);
+		converters.put(Timestamp.class, dateConverter);
+
+		converters.put(Serializable.class, new SerializableConverter());
+		return converters;
+	}
+
+	/**
+	 * Returns the converter for the given type, or null if there is none.
+	 * Types with no converter in this registry are looked up in the global
+	 * {@link ConvertUtils} registry and then, if it has none, among the
+	 * standard commons-beanutils converters.
+	 *
+	 * @param type the conversion target type
+	 * @return the converter for the type
+	 */
+	public Converter lookup(Class<?> type) {
+		Converter converter = converters.get(type);
+		if (converter == null) {
+			converter = ConvertUtils.lookup(type);
+			if (converter == null) {
+				converter = STANDARD_CONVERTERS.get(type);
+			}
+		}
+		return converter;
+	}
+
+	/**
+	 * Returns true if the converter of the given type is the default one, so
+	 * the type can be converted by the equivalent {@link NumberParser} methods
+	 */
+	boolean hasDefaultConverter(Class<?> type) {
+		return !replacedTypes.contains(type);
+	}
+
+	/**
+	 * Registers the converters of this registry in the global
+	 * {@link ConvertUtils} registry, for code still relying on it.
+	 */
+	public void registerGlobally() {
+		for (Map.Entry<Class<?>, Converter> entry : converters.entrySet()) {
+			ConvertUtils.register(entry.getValue(), entry.getKey());
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package org.sif.beans;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The {@link LazyCollection} views returned by
+ * {@link PropertyValueConverterUtil#valueListToCollection(Object, Class, Class, boolean)}.
+ * <p>
+ * Both views are backed by a random access list of the raw elements, which
+ * are converted by {@link PropertyValueConverterUtil} as they are read.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class ConvertingCollections {
+
+	private ConvertingCollections() {
+	}
+
+	/**
+	 * A list view converting each element when it is read. It is stateless, so
+	 * it can be shared between threads if the source list can.
+	 */
+	static final class ConvertingList<E> extends AbstractList<E> implements RandomAccess, LazyCollection<E> {
+
+		private final List<?> source;
+
+		private final Class<?> elementType;
+
+		private final Class<? extends Collection> collectionType;
+
+		private final PropertyValueConverterUtil<?> converterUtil;
+
+		ConvertingList(List<?> source, Class<?> elementType, Class<? extends Collection> collectionType,
+				PropertyValueConverterUtil<?> converterUtil) {
+			this.source = source;
+			this.elementType = elementType;
+			this.collectionType = collectionType;
+			this.converterUtil = converterUtil;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E get(int index) {
+			return (E) converterUtil.convertElement(elementType, source.get(index));
+		}
+
+		@Override
+		public int size() {
+			return source.size();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Collection<E> materialize() {
+			Collection<E> collection = (Collection<E>) converterUtil.collectionUtil().newCollection(collectionType);
+			collection.addAll(this);
+			return collection;
+		}
+	}
+
+	/**
+	 * A set view converting the elements as they are iterated, skipping the
+	 * ones equal to a previously converted element. Only {@link #isEmpty()} and
+	 * iterating a prefix avoid converting all elements; the other operations
+	 * convert them once and keep the result in a plain {@link HashSet}, so it
+	 * is not thread safe.
+	 */
+	static final class ConvertingSet<E> extends AbstractSet<E> implements LazyCollection<E> {
+
+		private final ConvertingList<E> elements;
+
+		private Set<E> converted;
+
+		ConvertingSet(ConvertingList<E> elements) {
+			this.elements = elements;
+		}
+
+		private Set<E> converted() {
+			if (converted == null) {
+				converted = new HashSet<>(elements);
+			}
+			return converted;
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			if (converted != null) {
+				return converted.iterator();
+			}
+			return new DistinctIterator<>(elements);
+		}
+
+		@Override
+		public int size() {
+			return converted().size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return elements.isEmpty();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return converted().contains(o);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Collection<E> materialize() {
+			Collection<E> collection = (Collection<E>) elements.converterUtil.collectionUtil()
+					.newCollection(elements.collectionType);
+			collection.addAll(converted());
+			return collection;
+		}
+	}
+
+	private static final class DistinctIterator<E> implements Iterator<E> {
+
+		private final List<E> elements;
+
+		private final Set<E> seen = new HashSet<>();
+
+		private int index;
+
+		private E next;
+
+		private boolean hasNext;
+
+		DistinctIterator(List<E> elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!hasNext && index < elements.size()) {
+				E element = elements.get(index++);
+				if (seen.add(element)) {
+					next = element;
+					hasNext = true;
+				}
+			}
+			return hasNext;
+		}
+
+		@Override
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			hasNext = false;
+			return next;
+		}
+	}
+}
@@ -1,16 +1,129 @@
 package org.sif.beans;
 
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Renders values for the log messages.
+ * <p>
+ * The renderings are capped to {@link #MAX_LENGTH} characters: collections
+ * and arrays are rendered element by element only up to the cap, so logging
+ * a large collection or an entity graph doesn't render all of it. The
+ * {@link #lazy(Object)} and {@link #typeName(Object)} renderers defer the
+ * rendering to their {@code toString()}, so they cost nothing but the wrapper
+ * when passed as arguments of a disabled log statement.
+ * </p>
+ * <p>
+ * The binding path traces are only logged if {@link #TRACE} is enabled and
+ * the logger level allows them, and both are checked before the renderers
+ * are created. TRACE is enabled by default and is disabled by setting the
+ * {@value #TRACE_PROPERTY} system property to false. It is read from the
+ * system property when this class is loaded, so javac can't remove the trace
+ * statements; being a static final constant, the JIT compiler drops them from
+ * the compiled code.
+ * </p>
+ */
 public class Debugger {
 
+	/**
+	 * The system property disabling the binding path traces
+	 */
+	public static final String TRACE_PROPERTY = "org.sif.beans.trace";
+
+	/**
+	 * Whether the binding path traces are logged
+	 */
+	public static final boolean TRACE = !"false".equalsIgnoreCase(System.getProperty(TRACE_PROPERTY));
+
+	/**
+	 * The maximum length of a rendered value, before the truncation marker
+	 */
+	public static final int MAX_LENGTH = 256;
+
+	private static final String ELLIPSIS = "...";
 
 	public static  String debug(Object value) {
 		if (value == null) {
 			return "(value is NULL!)";
 		}
-		String strValue = value.toString();
+		String strValue = render(value);
 		if (strValue.length() == 0) {
 			return "(value is EMPTY!)";
 		}
 		return "(" + strValue + ")";
 	}
+
+	/**
+	 * Returns an object rendering the value as {@link #debug(Object)} does,
+	 * only when its {@code toString()} is called
+	 */
+	public static Object lazy(Object value) {
+		return new Object() {
+			@Override
+			public String toString() {
+				return debug(value);
+			}
+		};
+	}
+
+	/**
+	 * Returns an object rendering the simple name of the given class, or of
+	 * the class of the given value, only when its {@code toString()} is called
+	 */
+	public static Object typeName(Object valueOrClass) {
+		return new Object() {
+			@Override
+			public String toString() {
+				if (valueOrClass == null) {
+					return "null";
+				}
+				Class<?> type = valueOrClass instanceof Class ? (Class<?>) valueOrClass : valueOrClass.getClass();
+				return type.getSimpleName();
+			}
+		};
+	}
+
+	/**
+	 * Renders the value up to {@link #MAX_LENGTH} characters
+	 */
+	static String render(Object value) {
+		StringBuilder result = new StringBuilder();
+		if (value instanceof Collection) {
+			result.append('[');
+			Iterator<?> iterator = ((Collection<?>) value).iterator();
+			for (int i = 0; iterator.hasNext() && result.length() <= MAX_LENGTH; i++) {
+				result.append(i > 0 ? ", " : "").append(iterator.next());
+			}
+			if (iterator.hasNext()) {
+				return truncate(result, ((Collection<?>) value).size());
+			}
+			result.append(']');
+		} else if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			result.append('[');
+			int i = 0;
+			for (; i < length && result.length() <= MAX_LENGTH; i++) {
+				result.append(i > 0 ? ", " : "").append(Array.get(value, i));
+			}
+			if (i < length) {
+				return truncate(result, length);
+			}
+			result.append(']');
+		} else {
+			result.append(value);
+		}
+		if (result.length() > MAX_LENGTH) {
+			result.setLength(MAX_LENGTH);
+			result.append(ELLIPSIS);
+		}
+		return result.toString();
+	}
+
+	private static String truncate(StringBuilder result, int size) {
+		if (result.length() > MAX_LENGTH) {
+			result.setLength(MAX_LENGTH);
+		}
+		return result.append(ELLIPSIS).append(" (").append(size).append(" elements)").toString();
+	}
 }
@@ -0,0 +1,28 @@
+package org.sif.beans;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Loads the entities referenced by relation properties from the data store,
+ * many at a time.
+ * <p>
+ * Used by {@link RelationBatchBinder} to resolve all the ids of an entity type
+ * found in a batch of parameters in a single call, instead of one lookup per
+ * id.
+ * </p>
+ *
+ * @param <I> the entities primary key type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public interface EntityLoader<I> {
+
+	/**
+	 * Loads the entities of the given type with the given ids.
+	 *
+	 * @param entityClass the entity type
+	 * @param ids         the ids to load, with no duplicates
+	 * @return the loaded entities by id. Ids with no entity are left out
+	 */
+	<E> Map<I, E> loadAll(Class<E> entityClass, Collection<I> ids);
+}
@@ -0,0 +1,251 @@
+package org.sif.beans;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per class cache of resolved fields, used by {@link Classes} and
+ * {@link AnnotationUtil}.
+ * <p>
+ * Field paths, simple or nested (e.g. "department.name"), are resolved once
+ * and memoized, so repeated lookups of the same path are a single map lookup.
+ * The metadata is kept in a {@link ClassValue}, so it doesn't prevent the
+ * bean classes from being unloaded.
+ * </p>
+ * <p>
+ * Paths that can't be resolved are remembered too, up to
+ * {@link #MAX_MISSING_PATHS} per class, so looking up unknown fields doesn't
+ * walk the class hierarchy nor build exceptions every time. The find methods
+ * return null for them; the get methods throw.
+ * </p>
+ * There are two ways of resolving nested paths:
+ * <ul>
+ * <li>{@link #getField(String)} walks through the declared field types, as
+ * {@link Classes#getField(Class, String)} does;</li>
+ * <li>{@link #getElementField(String)} walks through the element type of
+ * collection fields, as {@link AnnotationUtil} does, so "departments.name"
+ * resolves to the name field of the department class.</li>
+ * </ul>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class FieldMetadata {
+
+	private static final Logger log = LoggerFactory.getLogger(FieldMetadata.class);
+
+	private static final ClassValue<FieldMetadata> METADATA = new ClassValue<FieldMetadata>() {
+		@Override
+		protected FieldMetadata computeValue(Class<?> type) {
+			return new FieldMetadata(type);
+		}
+	};
+
+	/**
+	 * Marks the collection fields with no usable type argument
+	 */
+	private static final Class<?> NO_ELEMENT_TYPE = Void.class;
+
+	/**
+	 * Maximum number of missing paths remembered per class and resolution mode
+	 */
+	static final int MAX_MISSING_PATHS = 1024;
+
+	private final Class<?> beanClass;
+
+	private final ConcurrentMap<String, Field> fields = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Field> elementFields = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Class<?>> elementTypes = new ConcurrentHashMap<>();
+
+	private final Set<String> missingFields = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> missingElementFields = ConcurrentHashMap.newKeySet();
+
+	private FieldMetadata(Class<?> beanClass) {
+		this.beanClass = beanClass;
+	}
+
+	/**
+	 * Returns the field metadata of the given class
+	 */
+	static FieldMetadata of(Class<?> beanClass) {
+		return METADATA.get(beanClass);
+	}
+
+	/**
+	 * Returns the field for the given path, walking nested paths through the
+	 * declared field types.
+	 *
+	 * @throws IllegalArgumentException if the field can't be found
+	 */
+	Field getField(String path) {
+		Field field = findField(path);
+		if (field == null) {
+			throw notFound(path);
+		}
+		return field;
+	}
+
+	/**
+	 * Returns the field for the given path, walking nested paths through the
+	 * declared field types, or null if it can't be found.
+	 */
+	Field findField(String path) {
+		if (StringUtils.isBlank(path)) {
+			return null;
+		}
+		Field field = fields.get(path);
+		if (field == null && !missingFields.contains(path)) {
+			field = resolveField(path);
+			remember(fields, missingFields, path, field);
+		}
+		return field;
+	}
+
+	/**
+	 * Returns the field for the given path, walking nested paths through the
+	 * element type of collection fields.
+	 *
+	 * @throws IllegalArgumentException if the field can't be found
+	 */
+	Field getElementField(String path) {
+		Field field = findElementField(path);
+		if (field == null) {
+			throw notFound(path);
+		}
+		return field;
+	}
+
+	/**
+	 * Returns the field for the given path, walking nested paths through the
+	 * element type of collection fields, or null if it can't be found.
+	 */
+	Field findElementField(String path) {
+		if (StringUtils.isBlank(path)) {
+			return null;
+		}
+		Field field = elementFields.get(path);
+		if (field == null && !missingElementFields.contains(path)) {
+			field = resolveElementField(path);
+			remember(elementFields, missingElementFields, path, field);
+		}
+		return field;
+	}
+
+	/**
+	 * Returns the type argument of the generic field with the given path
+	 * (resolved as in {@link #getElementField(String)}), or null if the field
+	 * is not generic.
+	 *
+	 * @throws IllegalArgumentException if the field can't be found
+	 */
+	Class<?> getElementType(String path) {
+		Class<?> elementType = elementType(path, getElementField(path));
+		return elementType == NO_ELEMENT_TYPE ? null : elementType;
+	}
+
+	private Class<?> elementType(String path, Field field) {
+		Class<?> elementType = elementTypes.get(path);
+		if (elementType == null) {
+			elementType = resolveElementType(field);
+			elementTypes.putIfAbsent(path, elementType);
+		}
+		return elementType;
+	}
+
+	/**
+	 * Caches the resolved field or, if it was not found and there is still
+	 * room, the missing path.
+	 */
+	private static void remember(ConcurrentMap<String, Field> fields, Set<String> missing, String path,
+			Field field) {
+		if (field != null) {
+			fields.putIfAbsent(path, field);
+		} else if (missing.size() < MAX_MISSING_PATHS) {
+			missing.add(path);
+		}
+	}
+
+	private IllegalArgumentException notFound(String path) {
+		return new IllegalArgumentException("Field [" + path + "] not found in [" + beanClass + "]");
+	}
+
+	private Field resolveField(String path) {
+		if (Classes.isNested(path)) {
+			int dot = path.indexOf('.');
+			Field first = findField(path.substring(0, dot));
+			if (first == null) {
+				return null;
+			}
+			return of(first.getType()).findField(path.substring(dot + 1));
+		}
+		return FieldUtils.getField(beanClass, path, true);
+	}
+
+	private Field resolveElementField(String path) {
+		if (Classes.isNested(path)) {
+			int dot = path.indexOf('.');
+			String firstPart = path.substring(0, dot);
+			String lastPart = path.substring(dot + 1);
+			log.debug("This is a nested field. Recursion for lastPart: {}", lastPart);
+			log.debug("Getting type for first part property [{}]", firstPart);
+			Field first = findElementField(firstPart);
+			if (first == null) {
+				return null;
+			}
+			Class<?> firstType = first.getType();
+			if (Collection.class.isAssignableFrom(firstType)) {
+				log.debug("Found a collection. Trying the generic type...");
+				firstType = elementType(firstPart, first);
+				if (firstType == NO_ELEMENT_TYPE) {
+					return null;
+				}
+			}
+			log.debug("FirstType class: [{}]", firstType);
+			return of(firstType).findElementField(lastPart);
+		}
+		return FieldUtils.getField(beanClass, path, true);
+	}
+
+	private static Class<?> resolveElementType(Field field) {
+		// It is the generic type applied to the collection.
+		Type genericType = field.getGenericType();
+		log.debug("Generic type: {}", genericType);
+		if (!(genericType instanceof ParameterizedType)) {
+			// This field doesn't have a generic type. So I can't determine the
+			// correct type this one-to-many fields relates to.
+			return NO_ELEMENT_TYPE;
+		}
+		Type[] typeArguments = ((ParameterizedType) genericType).getActualTypeArguments();
+		if (typeArguments.length == 0) {
+			// No type argument specified. Can't determine the actual type
+			// for the relation
+			return NO_ELEMENT_TYPE;
+		}
+		// This is the type argument declared for the one-to-many field like
+		// Set<Entity>
+		Type typeArgument = typeArguments[0];
+		if (typeArgument instanceof WildcardType) {
+			// Like Set<? extends Entity>, the upper bound is the element type
+			Type[] upperBounds = ((WildcardType) typeArgument).getUpperBounds();
+			typeArgument = upperBounds.length == 0 || upperBounds[0] == Object.class ? null : upperBounds[0];
+		}
+		if (typeArgument instanceof ParameterizedType) {
+			typeArgument = ((ParameterizedType) typeArgument).getRawType();
+		}
+		// Type variables, like Set<T>, can't be resolved from the field
+		return typeArgument instanceof Class ? (Class<?>) typeArgument : NO_ELEMENT_TYPE;
+	}
+}
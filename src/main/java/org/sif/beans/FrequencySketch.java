@@ -0,0 +1,97 @@
+package org.sif.beans;
+
+/**
+ * Estimates how often keys were seen recently, for the admission policy of
+ * {@link TinyLfuRelationCache}.
+ * <p>
+ * It is a count-min sketch of 4 bit counters, sixteen per long, with four
+ * counters per key. Once the number of increments reaches ten times the cache
+ * size all counters are halved, so the estimates follow the recent accesses.
+ * </p>
+ * It is not thread safe.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class FrequencySketch {
+
+	private static final long[] SEEDS = {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	static final int MAX_FREQUENCY = 15;
+
+	private final long[] table;
+
+	private final int mask;
+
+	private final int sampleSize;
+
+	private int increments;
+
+	FrequencySketch(int maximumSize) {
+		int length = Integer.highestOneBit(Math.max(maximumSize, 8) - 1) << 1;
+		this.table = new long[length];
+		this.mask = length - 1;
+		this.sampleSize = maximumSize > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : maximumSize * 10;
+	}
+
+	/**
+	 * Returns the estimated frequency of the key, up to {@link #MAX_FREQUENCY}
+	 */
+	int frequency(Object key) {
+		int hash = spread(key.hashCode());
+		int frequency = MAX_FREQUENCY;
+		for (int i = 0; i < SEEDS.length; i++) {
+			frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> offsetOf(hash, i)) & 0xfL));
+		}
+		return frequency;
+	}
+
+	/**
+	 * Counts an occurrence of the key, halving all counters once the sample
+	 * size is reached
+	 */
+	void increment(Object key) {
+		int hash = spread(key.hashCode());
+		boolean added = false;
+		for (int i = 0; i < SEEDS.length; i++) {
+			int index = indexOf(hash, i);
+			int offset = offsetOf(hash, i);
+			if (((table[index] >>> offset) & 0xfL) < MAX_FREQUENCY) {
+				table[index] += 1L << offset;
+				added = true;
+			}
+		}
+		if (added && ++increments >= sampleSize) {
+			reset();
+		}
+	}
+
+	private void reset() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		increments /= 2;
+	}
+
+	private int indexOf(int hash, int i) {
+		long h = (hash + SEEDS[i]) * SEEDS[i];
+		h += h >>> 32;
+		return (int) h & mask;
+	}
+
+	/**
+	 * Returns the bit offset of the key counter in its long: one of the sixteen
+	 * counters, chosen by a different hash nibble for each row
+	 */
+	private static int offsetOf(int hash, int i) {
+		return ((hash >>> (i << 3)) & 0xf) << 2;
+	}
+
+	private static int spread(int hash) {
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		return (hash >>> 16) ^ hash;
+	}
+}
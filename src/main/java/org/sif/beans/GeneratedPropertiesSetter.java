@@ -0,0 +1,219 @@
+package org.sif.beans;
+
+import org.sif.beans.converters.IgnoreConversionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.sif.beans.BeanPropertiesSetter.IGNORE_EMPTY_PROPERTY;
+import static org.sif.beans.BeanPropertiesSetter.IGNORE_PROPERTY;
+
+/**
+ * Base class for the {@link PropertiesSetter}s generated at compile time by
+ * {@link org.sif.beans.processor.PropertiesSetterProcessor} for each
+ * {@link javax.persistence.Entity} class.
+ * <p>
+ * The generated subclasses set the simple properties of the entity calling its
+ * setters directly, with no reflection. The properties they don't handle, like
+ * relations, collections and dissociations, are passed to the fallback
+ * {@link PropertiesSetter}, if one is set.
+ * </p>
+ * {@link BeanPropertiesSetter} looks up the generated setter of each bean class
+ * through {@link #forClass(Class)} and uses it ahead of the reflective setters
+ * for the properties it handles.
+ *
+ * @param <T> the entity type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public abstract class GeneratedPropertiesSetter<T> implements PropertiesSetter<T> {
+
+	/**
+	 * The suffix appended to the entity class name to name its generated setter
+	 */
+	public static final String SUFFIX = "_PropertiesSetter";
+
+	private static final Logger log = LoggerFactory.getLogger(GeneratedPropertiesSetter.class);
+
+	private static final ClassValue<GeneratedPropertiesSetter<?>> GENERATED =
+			new ClassValue<GeneratedPropertiesSetter<?>>() {
+				@Override
+				protected GeneratedPropertiesSetter<?> computeValue(Class<?> type) {
+					return load(type);
+				}
+			};
+
+	private final PropertyValueConverterUtil<T> converter = new PropertyValueConverterUtil<>();
+
+	private PropertiesSetter<T> fallback;
+
+	/**
+	 * Returns a shared instance of the generated setter for the given class, or
+	 * null if no setter was generated for it. The shared instance has no
+	 * fallback.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> GeneratedPropertiesSetter<T> forClass(Class<T> beanClass) {
+		return (GeneratedPropertiesSetter<T>) GENERATED.get(beanClass);
+	}
+
+	private static GeneratedPropertiesSetter<?> load(Class<?> beanClass) {
+		if (beanClass.isArray() || beanClass.isPrimitive() || beanClass.getClassLoader() == null) {
+			return null;
+		}
+		try {
+			Class<?> generated = Class.forName(beanClass.getName() + SUFFIX, true, beanClass.getClassLoader());
+			if (!GeneratedPropertiesSetter.class.isAssignableFrom(generated)) {
+				return null;
+			}
+			log.debug("Found generated properties setter [{}]", generated);
+			return (GeneratedPropertiesSetter<?>) generated.newInstance();
+		} catch (ClassNotFoundException ex) {
+			return null;
+		} catch (InstantiationException | IllegalAccessException ex) {
+			log.warn("Could not instantiate the generated properties setter for [{}]: {}", beanClass, ex.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the entity class this setter was generated for
+	 */
+	public abstract Class<T> getBeanClass();
+
+	/**
+	 * Returns whether this setter can set the given property directly
+	 */
+	public abstract boolean handles(String property);
+
+	/**
+	 * Sets the given property calling the entity setter directly.
+	 *
+	 * @throws IllegalArgumentException if the property is not handled by this setter
+	 */
+	protected abstract void setProperty(T bean, String property, Object value);
+
+	/**
+	 * Sets all properties found in the provided parameters. The handled
+	 * properties are set directly. The others, except binding directives, are
+	 * passed to the fallback setter or, if there is no fallback, ignored with a
+	 * warning.
+	 *
+	 * @param bean       the bean to set the properties
+	 * @param parameters a Map providing property values to set in the destination bean
+	 */
+	@Override
+	public void setAllProperties(T bean, Map<String, Object> parameters) {
+		Collection<String> ignoreList = BeanPropertiesSetter.ignoredProperties(parameters);
+		Map<String, Object> remaining = null;
+		for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+			String property = entry.getKey();
+			if (ignoreList.contains(property)
+					|| IGNORE_PROPERTY.equals(property) || IGNORE_EMPTY_PROPERTY.equals(property)) {
+				continue;
+			}
+			if (handles(property)) {
+				setConvertedProperty(bean, property, entry.getValue());
+			} else if (fallback != null) {
+				if (remaining == null) {
+					remaining = new HashMap<>();
+				}
+				remaining.put(property, entry.getValue());
+			} else {
+				log.warn("The property [{}] is not handled by [{}]", property, getClass().getName());
+			}
+		}
+		if (remaining != null) {
+			fallback.setAllProperties(bean, remaining);
+		}
+	}
+
+	/**
+	 * Sets a handled property, leaving it untouched if the value is empty and
+	 * can't be converted to the property type.
+	 */
+	void setConvertedProperty(T bean, String property, Object value) {
+		try {
+			setProperty(bean, property, value);
+		} catch (IgnoreConversionException ex) {
+			log.debug("Ignoring empty value for property [{}]", property);
+		}
+	}
+
+	/**
+	 * Converts the value to the given property type. Used by the generated
+	 * setters.
+	 *
+	 * @throws IllegalArgumentException if the value is null and the type is primitive
+	 */
+	protected final Object convert(Class<?> type, Object value) {
+		if (value == null) {
+			if (type.isPrimitive()) {
+				requirePrimitiveValue(type, null);
+			}
+			return null;
+		}
+		if (type.isInstance(value)) {
+			return value;
+		}
+		return converter.convert(type, value);
+	}
+
+	/**
+	 * Converts the value to an int property, with no boxing for character
+	 * sequences. Used by the generated setters.
+	 *
+	 * @throws IllegalArgumentException if the value is null
+	 */
+	protected final int convertToInt(Object value) {
+		return converter.convertToInt(requirePrimitiveValue(int.class, value));
+	}
+
+	/**
+	 * Converts the value to a long property, with no boxing for character
+	 * sequences. Used by the generated setters.
+	 *
+	 * @throws IllegalArgumentException if the value is null
+	 */
+	protected final long convertToLong(Object value) {
+		return converter.convertToLong(requirePrimitiveValue(long.class, value));
+	}
+
+	/**
+	 * Converts the value to a double property, with no boxing for character
+	 * sequences. Used by the generated setters.
+	 *
+	 * @throws IllegalArgumentException if the value is null
+	 */
+	protected final double convertToDouble(Object value) {
+		return converter.convertToDouble(requirePrimitiveValue(double.class, value));
+	}
+
+	private static Object requirePrimitiveValue(Class<?> type, Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Can't set a null value to a primitive [" + type + "] property");
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the factory of the fallback setter, or null if there is no fallback.
+	 */
+	@Override
+	public PropertySetterFactory<?, ?> getFactory() {
+		return fallback == null ? null : fallback.getFactory();
+	}
+
+	public PropertiesSetter<T> getFallback() {
+		return fallback;
+	}
+
+	/**
+	 * Sets the setter used for the properties this one doesn't handle.
+	 */
+	public void setFallback(PropertiesSetter<T> fallback) {
+		this.fallback = fallback;
+	}
+}
@@ -0,0 +1,163 @@
+package org.sif.beans;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A set of entity ids, used to diff collection relations.
+ * <p>
+ * Integral ids are kept unboxed in an open addressing table of longs, so
+ * indexing the tens of thousands of members of a large relation doesn't box
+ * nor allocate per id. Other ids are kept in a {@link HashSet}.
+ * </p>
+ * It is not thread safe.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+abstract class IdIndex {
+
+	/**
+	 * Returns an empty index for ids of the given type
+	 *
+	 * @param idType       the id type
+	 * @param expectedSize the expected number of ids
+	 */
+	static IdIndex forType(Class<?> idType, int expectedSize) {
+		if (idType == Long.class || idType == Integer.class || idType == Short.class || idType == Byte.class
+				|| idType == long.class || idType == int.class || idType == short.class || idType == byte.class) {
+			return new LongIdIndex(expectedSize);
+		}
+		return new HashIdIndex(expectedSize);
+	}
+
+	/**
+	 * Adds the id. Null ids are ignored.
+	 *
+	 * @return true if the id was not in the index
+	 */
+	abstract boolean add(Object id);
+
+	/**
+	 * Returns whether the index has the id. It never has null.
+	 */
+	abstract boolean contains(Object id);
+
+	abstract int size();
+
+	private static final class HashIdIndex extends IdIndex {
+
+		private final Set<Object> ids;
+
+		HashIdIndex(int expectedSize) {
+			this.ids = new HashSet<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+		}
+
+		@Override
+		boolean add(Object id) {
+			return id != null && ids.add(id);
+		}
+
+		@Override
+		boolean contains(Object id) {
+			return id != null && ids.contains(id);
+		}
+
+		@Override
+		int size() {
+			return ids.size();
+		}
+	}
+
+	/**
+	 * Linear probing table of longs. Zero marks the free slots, so the zero id
+	 * is tracked apart.
+	 */
+	static final class LongIdIndex extends IdIndex {
+
+		private long[] table;
+
+		private int mask;
+
+		private int size;
+
+		private boolean hasZero;
+
+		LongIdIndex(int expectedSize) {
+			int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2) - 1) << 1;
+			this.table = new long[capacity];
+			this.mask = capacity - 1;
+		}
+
+		@Override
+		boolean add(Object id) {
+			return id != null && add(((Number) id).longValue());
+		}
+
+		@Override
+		boolean contains(Object id) {
+			return id != null && contains(((Number) id).longValue());
+		}
+
+		boolean add(long id) {
+			if (id == 0L) {
+				if (hasZero) {
+					return false;
+				}
+				hasZero = true;
+				size++;
+				return true;
+			}
+			int slot = slot(id);
+			while (table[slot] != 0L) {
+				if (table[slot] == id) {
+					return false;
+				}
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id;
+			if (++size * 2 > table.length) {
+				grow();
+			}
+			return true;
+		}
+
+		boolean contains(long id) {
+			if (id == 0L) {
+				return hasZero;
+			}
+			int slot = slot(id);
+			while (table[slot] != 0L) {
+				if (table[slot] == id) {
+					return true;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return false;
+		}
+
+		@Override
+		int size() {
+			return size;
+		}
+
+		private int slot(long id) {
+			long h = id * 0x9e3779b97f4a7c15L;
+			return (int) (h ^ (h >>> 32)) & mask;
+		}
+
+		private void grow() {
+			long[] old = table;
+			table = new long[old.length * 2];
+			mask = table.length - 1;
+			for (long id : old) {
+				if (id != 0L) {
+					int slot = slot(id);
+					while (table[slot] != 0L) {
+						slot = (slot + 1) & mask;
+					}
+					table[slot] = id;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package org.sif.beans;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link EntityLoader} serving entities registered in memory, mostly for
+ * tests. It counts the calls per entity type, so tests can check how many
+ * lookups a binding did.
+ *
+ * @param <I> the entities primary key type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public class InMemoryEntityLoader<I> implements EntityLoader<I> {
+
+	private final ConcurrentMap<Class<?>, ConcurrentMap<I, Object>> entities = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Class<?>, AtomicInteger> loadCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * Registers an entity, replacing the one with the same type and id
+	 */
+	public <E> InMemoryEntityLoader<I> put(Class<E> entityClass, I id, E entity) {
+		entities.computeIfAbsent(entityClass, c -> new ConcurrentHashMap<>()).put(id, entity);
+		return this;
+	}
+
+	@Override
+	public <E> Map<I, E> loadAll(Class<E> entityClass, Collection<I> ids) {
+		loadCounts.computeIfAbsent(entityClass, c -> new AtomicInteger()).incrementAndGet();
+		Map<I, E> result = new HashMap<>();
+		Map<I, Object> stored = entities.get(entityClass);
+		if (stored != null) {
+			for (I id : ids) {
+				Object entity = stored.get(id);
+				if (entity != null) {
+					result.put(id, entityClass.cast(entity));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of {@link #loadAll(Class, Collection)} calls for the
+	 * given entity type
+	 */
+	public int getLoadCount(Class<?> entityClass) {
+		AtomicInteger count = loadCounts.get(entityClass);
+		return count == null ? 0 : count.get();
+	}
+}
@@ -0,0 +1,53 @@
+package org.sif.beans;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non negative values, with a bucket per power of two.
+ * <p>
+ * Recording a value is a few striped counter increments, with no locking nor
+ * allocation, so it can be shared by all the binding threads. Bucket
+ * {@code i} counts the values of {@code i} significant bits, so the
+ * percentiles read from a snapshot are accurate up to a factor of two.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class LatencyHistogram {
+
+	static final int BUCKETS = 65;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+	private final LongAdder sum = new LongAdder();
+
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+	LatencyHistogram() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records a value. Negative values, from a clock going backwards, are
+	 * recorded as zero.
+	 */
+	void record(long value) {
+		long recorded = Math.max(0L, value);
+		buckets[64 - Long.numberOfLeadingZeros(recorded)].increment();
+		sum.add(recorded);
+		max.accumulate(recorded);
+	}
+
+	BindingMetricsSnapshot.Histogram snapshot() {
+		long[] counts = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets[i].sum();
+			count += counts[i];
+		}
+		return new BindingMetricsSnapshot.Histogram(count, sum.sum(), max.get(), counts);
+	}
+}
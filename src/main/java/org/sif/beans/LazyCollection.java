@@ -0,0 +1,31 @@
+package org.sif.beans;
+
+import java.util.Collection;
+
+/**
+ * A read only collection whose elements are converted only when they are
+ * read, as returned by the lazy mode of
+ * {@link PropertyValueConverterUtil#valueListToCollection(Object, Class, Class, boolean)}.
+ * <p>
+ * Conversion errors are thrown when the failing element is read. Lazy lists
+ * don't keep the converted elements, so a lazy list read several times
+ * converts its elements several times. Use {@link #materialize()} in that
+ * case. Lazy sets keep them, in a plain {@link java.util.HashSet}, once an
+ * operation other than iterating or {@link #isEmpty()} converts them all.
+ * </p>
+ * Lazy lists can be shared between threads if their source can. Lazy sets
+ * are not thread safe.
+ *
+ * @param <E> the element type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public interface LazyCollection<E> extends Collection<E> {
+
+	/**
+	 * Converts all elements into a new, modifiable collection of the requested
+	 * collection type.
+	 *
+	 * @return the converted collection
+	 */
+	Collection<E> materialize();
+}
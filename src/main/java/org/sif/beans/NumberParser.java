@@ -0,0 +1,141 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.ConversionException;
+import org.sif.beans.converters.IgnoreConversionException;
+
+/**
+ * Parses primitive numbers straight from a {@link CharSequence}, with no
+ * intermediate strings nor boxed values.
+ * <p>
+ * The accepted formats and the errors are the same of the beanutils number
+ * converters registered by {@link ConverterRegistry}: the value is trimmed,
+ * an empty value throws {@link IgnoreConversionException} and anything else
+ * that is not a number of the target type throws {@link ConversionException}.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class NumberParser {
+
+	private NumberParser() {
+	}
+
+	/**
+	 * Parses an int, as {@link Integer#parseInt(String)} does with the trimmed value
+	 */
+	static int parseInt(CharSequence value) {
+		int start = start(value);
+		return (int) parseLong(value, start, end(value, start, "Integer"), Integer.MIN_VALUE, Integer.MAX_VALUE,
+				"Integer");
+	}
+
+	/**
+	 * Parses a long, as {@link Long#parseLong(String)} does with the trimmed value
+	 */
+	static long parseLong(CharSequence value) {
+		int start = start(value);
+		return parseLong(value, start, end(value, start, "Long"), Long.MIN_VALUE, Long.MAX_VALUE, "Long");
+	}
+
+	/**
+	 * Parses a long from the given region of the value, which must be already
+	 * trimmed.
+	 *
+	 * @throws IgnoreConversionException if the region is empty
+	 */
+	static long parseLong(CharSequence value, int start, int end) {
+		if (start == end) {
+			throw new IgnoreConversionException();
+		}
+		return parseLong(value, start, end, Long.MIN_VALUE, Long.MAX_VALUE, "Long");
+	}
+
+	/**
+	 * Parses an int from the given region of the value, which must be already
+	 * trimmed.
+	 *
+	 * @throws IgnoreConversionException if the region is empty
+	 */
+	static int parseInt(CharSequence value, int start, int end) {
+		if (start == end) {
+			throw new IgnoreConversionException();
+		}
+		return (int) parseLong(value, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE, "Integer");
+	}
+
+	/**
+	 * Parses a double, as {@link Double#parseDouble(String)} does with the
+	 * trimmed value. Strings are parsed with no copy.
+	 */
+	static double parseDouble(CharSequence value) {
+		int start = start(value);
+		int end = end(value, start, "Double");
+		try {
+			return Double.parseDouble(value.subSequence(start, end).toString());
+		} catch (NumberFormatException ex) {
+			throw invalid(value, start, end, "Double");
+		}
+	}
+
+	private static long parseLong(CharSequence value, int start, int end, long min, long max, String typeName) {
+		int i = start;
+		boolean negative = false;
+		char first = value.charAt(i);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			i++;
+			if (i == end) {
+				throw invalid(value, start, end, typeName);
+			}
+		}
+		// Accumulates negatively, so the minimum value doesn't overflow
+		long limit = negative ? min : -max;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = Character.digit(value.charAt(i), 10);
+			if (digit < 0 || result < multiplyLimit) {
+				throw invalid(value, start, end, typeName);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw invalid(value, start, end, typeName);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	private static int start(CharSequence value) {
+		int start = 0;
+		while (start < value.length() && value.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * Returns the end of the trimmed value.
+	 *
+	 * @throws IgnoreConversionException if the value is empty
+	 * @throws ConversionException       if the value is blank
+	 */
+	private static int end(CharSequence value, int start, String typeName) {
+		if (value.length() == 0) {
+			throw new IgnoreConversionException();
+		}
+		int end = value.length();
+		while (end > start && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			throw new ConversionException("No value specified for '" + typeName + "'");
+		}
+		return end;
+	}
+
+	private static ConversionException invalid(CharSequence value, int start, int end, String typeName) {
+		return new ConversionException("Error converting from 'String' to '" + typeName + "' "
+				+ value.subSequence(start, end));
+	}
+}
@@ -0,0 +1,270 @@
+package org.sif.beans;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read only {@link List} views over primitive arrays, and conversions between
+ * primitive array types.
+ * <p>
+ * The views don't copy the array: each element is boxed only when it is read,
+ * and changes to the array are visible through the view. The conversions copy
+ * the elements in a single loop, with no boxing.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class PrimitiveArrays {
+
+	private PrimitiveArrays() {
+	}
+
+	/**
+	 * Returns a read only list view over the given primitive array.
+	 *
+	 * @param array the primitive array
+	 * @return the list view, with the boxed element type
+	 * @throws IllegalArgumentException if the value is not a primitive array
+	 */
+	static List<?> asList(Object array) {
+		if (array instanceof int[]) {
+			return new IntList((int[]) array);
+		}
+		if (array instanceof long[]) {
+			return new LongList((long[]) array);
+		}
+		if (array instanceof double[]) {
+			return new DoubleList((double[]) array);
+		}
+		if (array instanceof float[]) {
+			return new FloatList((float[]) array);
+		}
+		if (array instanceof short[]) {
+			return new ShortList((short[]) array);
+		}
+		if (array instanceof byte[]) {
+			return new ByteList((byte[]) array);
+		}
+		if (array instanceof char[]) {
+			return new CharList((char[]) array);
+		}
+		if (array instanceof boolean[]) {
+			return new BooleanList((boolean[]) array);
+		}
+		throw new IllegalArgumentException("The value must be a primitive array: " + array);
+	}
+
+	/**
+	 * Returns whether the value is an array of a primitive numeric type
+	 */
+	static boolean isNumericArray(Object array) {
+		return array instanceof int[] || array instanceof long[] || array instanceof double[]
+				|| array instanceof float[] || array instanceof short[] || array instanceof byte[];
+	}
+
+	/**
+	 * Converts a primitive numeric array to a long array. Floating point values
+	 * are truncated, as {@link Number#longValue()} does.
+	 *
+	 * @throws IllegalArgumentException if the value is not a primitive numeric array
+	 */
+	static long[] toLongArray(Object array) {
+		if (array instanceof long[]) {
+			return (long[]) array;
+		}
+		if (array instanceof int[]) {
+			int[] values = (int[]) array;
+			long[] result = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				result[i] = values[i];
+			}
+			return result;
+		}
+		if (array instanceof double[]) {
+			double[] values = (double[]) array;
+			long[] result = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				result[i] = (long) values[i];
+			}
+			return result;
+		}
+		if (array instanceof float[]) {
+			float[] values = (float[]) array;
+			long[] result = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				result[i] = (long) values[i];
+			}
+			return result;
+		}
+		if (array instanceof short[]) {
+			short[] values = (short[]) array;
+			long[] result = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				result[i] = values[i];
+			}
+			return result;
+		}
+		if (array instanceof byte[]) {
+			byte[] values = (byte[]) array;
+			long[] result = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				result[i] = values[i];
+			}
+			return result;
+		}
+		throw new IllegalArgumentException("The value must be a primitive numeric array: " + array);
+	}
+
+	private static final class IntList extends AbstractList<Integer> implements RandomAccess {
+
+		private final int[] array;
+
+		IntList(int[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Integer get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+
+	private static final class LongList extends AbstractList<Long> implements RandomAccess {
+
+		private final long[] array;
+
+		LongList(long[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Long get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+
+	private static final class DoubleList extends AbstractList<Double> implements RandomAccess {
+
+		private final double[] array;
+
+		DoubleList(double[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Double get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+
+	private static final class FloatList extends AbstractList<Float> implements RandomAccess {
+
+		private final float[] array;
+
+		FloatList(float[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Float get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+
+	private static final class ShortList extends AbstractList<Short> implements RandomAccess {
+
+		private final short[] array;
+
+		ShortList(short[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Short get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+
+	private static final class ByteList extends AbstractList<Byte> implements RandomAccess {
+
+		private final byte[] array;
+
+		ByteList(byte[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Byte get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+
+	private static final class CharList extends AbstractList<Character> implements RandomAccess {
+
+		private final char[] array;
+
+		CharList(char[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Character get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+
+	private static final class BooleanList extends AbstractList<Boolean> implements RandomAccess {
+
+		private final boolean[] array;
+
+		BooleanList(boolean[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Boolean get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package org.sif.beans;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Defines a general contract for setting properties in a bean.
@@ -27,6 +29,27 @@ public interface PropertiesSetter<T> {
 	 */
 	void setAllProperties(T bean, Map<String, Object> parameters);
 
+	/**
+	 * Sets the properties of many beans in parallel. The items are split into
+	 * partitions bound by tasks submitted to the provided executor, and this
+	 * method returns when all of them are done. An item that fails to bind is
+	 * reported in the result and doesn't stop the others.
+	 * <p>
+	 * The default implementation calls {@link #setAllProperties(Object, Map)}
+	 * for each item, from several threads, so implementations must be thread
+	 * safe to be used this way.
+	 * </p>
+	 *
+	 * @param items
+	 *            the beans and the parameters to set on each of them
+	 * @param executor
+	 *            runs the binding tasks
+	 * @return the number of items bound and the failures
+	 */
+	default BatchBindingResult<T> setAllProperties(List<BindingItem<T>> items, Executor executor) {
+		return BatchBinding.run(this, items, executor);
+	}
+
 	/**
 	 * Returns a {@link PropertySetterFactory} to query property setters
 	 * @return the bound property setter factory
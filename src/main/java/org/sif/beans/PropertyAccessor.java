@@ -0,0 +1,181 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.MethodUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes a single bean property through {@link MethodHandle}s
+ * resolved once, when the owning {@link BeanIntrospection} is built.
+ * <p>
+ * The handles are adapted to generic {@code (Object)Object} and
+ * {@code (Object, Object)void} types so they can be called with
+ * {@link MethodHandle#invokeExact(Object...)}, avoiding the argument array,
+ * the access checks and the descriptor lookup of
+ * {@link java.lang.reflect.Method#invoke(Object, Object...)}.
+ * </p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public final class PropertyAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final String name;
+
+	private final Class<?> type;
+
+	private final Type genericType;
+
+	private final Method readMethod;
+
+	private final Method writeMethod;
+
+	private final MethodHandle getter;
+
+	private final MethodHandle setter;
+
+	PropertyAccessor(Class<?> beanClass, String name, Class<?> type, Method readMethod, Method writeMethod) {
+		this.name = name;
+		this.type = type;
+		this.readMethod = accessible(beanClass, readMethod);
+		this.writeMethod = accessible(beanClass, writeMethod);
+		this.getter = unreflect(this.readMethod, GETTER_TYPE);
+		this.setter = unreflect(this.writeMethod, SETTER_TYPE);
+		if (readMethod != null) {
+			this.genericType = readMethod.getGenericReturnType();
+		} else if (writeMethod != null) {
+			this.genericType = writeMethod.getGenericParameterTypes()[0];
+		} else {
+			this.genericType = type;
+		}
+	}
+
+	/**
+	 * Returns the accessible version of the given method, the same way
+	 * {@link org.apache.commons.beanutils.PropertyUtils} finds it, or null if
+	 * there is none.
+	 */
+	private static Method accessible(Class<?> beanClass, Method method) {
+		if (method == null) {
+			return null;
+		}
+		return MethodUtils.getAccessibleMethod(beanClass, method);
+	}
+
+	/**
+	 * Returns a handle for the given method adapted to the given generic type,
+	 * or null if the method can't be looked up. In the last case the accessor
+	 * falls back to reflection.
+	 */
+	private static MethodHandle unreflect(Method method, MethodType genericType) {
+		if (method == null) {
+			return null;
+		}
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(genericType);
+		} catch (IllegalAccessException | IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the property name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the property type
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the property generic type, as declared by the read method or,
+	 * when there is none, by the write method.
+	 */
+	public Type getGenericType() {
+		return genericType;
+	}
+
+	/**
+	 * Returns true if the property has an accessible read method
+	 */
+	public boolean isReadable() {
+		return readMethod != null;
+	}
+
+	/**
+	 * Returns true if the property has an accessible write method
+	 */
+	public boolean isWritable() {
+		return writeMethod != null;
+	}
+
+	/**
+	 * Returns the property value for the given bean.
+	 *
+	 * @param bean the bean to read the property from
+	 * @return the property value
+	 * @throws IllegalArgumentException if the property is not readable or the read method fails
+	 */
+	public Object get(Object bean) {
+		if (readMethod == null) {
+			throw new IllegalArgumentException("Property [" + name + "] is not readable");
+		}
+		try {
+			if (getter == null) {
+				return readMethod.invoke(bean);
+			}
+			return (Object) getter.invokeExact(bean);
+		} catch (InvocationTargetException ex) {
+			throw new IllegalArgumentException(ex.getCause().toString(), ex.getCause());
+		} catch (Error | IllegalArgumentException ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new IllegalArgumentException(ex.toString(), ex);
+		}
+	}
+
+	/**
+	 * Sets the property value on the given bean. No conversion is done.
+	 *
+	 * @param bean  the bean to set the property
+	 * @param value the value to set
+	 * @throws IllegalArgumentException if the property is not writable or the write method fails
+	 */
+	public void set(Object bean, Object value) {
+		if (writeMethod == null) {
+			throw new IllegalArgumentException("Property [" + name + "] is not writable");
+		}
+		try {
+			if (setter == null) {
+				writeMethod.invoke(bean, value);
+			} else {
+				setter.invokeExact(bean, value);
+			}
+		} catch (InvocationTargetException ex) {
+			throw new IllegalArgumentException(ex.getCause().toString(), ex.getCause());
+		} catch (Error | IllegalArgumentException ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new IllegalArgumentException(ex.toString(), ex);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PropertyAccessor{" + name + ": " + type.getName() + "}";
+	}
+}
@@ -0,0 +1,82 @@
+package org.sif.beans;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The kinds of bean properties, each one handled by its own
+ * {@link PropertySetter} in {@link BeanPropertySetterFactory}.
+ * <p>
+ * A property is classified by the JPA relation annotation of its field, as
+ * indexed by {@link AnnotationIndex}. Nested paths are {@link #NESTED}
+ * whatever their last field is, and properties with no field, or with no
+ * relation annotation, are {@link #SIMPLE}. The kind of each property is
+ * computed once per class.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public enum PropertyKind {
+
+	SIMPLE, NESTED, MANY_TO_ONE, ONE_TO_ONE, ONE_TO_MANY, MANY_TO_MANY;
+
+	/**
+	 * Maximum number of properties whose kind is cached per class
+	 */
+	static final int MAX_PROPERTIES_PER_CLASS = 1024;
+
+	private static final ClassValue<ConcurrentMap<String, PropertyKind>> KINDS =
+			new ClassValue<ConcurrentMap<String, PropertyKind>>() {
+				@Override
+				protected ConcurrentMap<String, PropertyKind> computeValue(Class<?> type) {
+					return new ConcurrentHashMap<>();
+				}
+			};
+
+	/**
+	 * Returns whether this is one of the relation kinds
+	 */
+	public boolean isRelation() {
+		return this != SIMPLE && this != NESTED;
+	}
+
+	/**
+	 * Returns the kind of the given property of the given class
+	 */
+	public static PropertyKind of(Class<?> beanClass, String property) {
+		ConcurrentMap<String, PropertyKind> kinds = KINDS.get(beanClass);
+		PropertyKind kind = kinds.get(property);
+		if (kind == null) {
+			kind = classify(beanClass, property);
+			if (kinds.size() < MAX_PROPERTIES_PER_CLASS) {
+				kinds.putIfAbsent(property, kind);
+			}
+		}
+		return kind;
+	}
+
+	private static PropertyKind classify(Class<?> beanClass, String property) {
+		if (Classes.isNested(property)) {
+			return NESTED;
+		}
+		Field field = FieldMetadata.of(beanClass).findField(property);
+		if (field == null) {
+			return SIMPLE;
+		}
+		AnnotationIndex.FieldAnnotations annotations = AnnotationIndex.forField(field);
+		if (annotations == null || !annotations.hasAny(AnnotationIndex.RELATIONS)) {
+			return SIMPLE;
+		}
+		if (annotations.hasAny(AnnotationIndex.MANY_TO_ONE)) {
+			return MANY_TO_ONE;
+		}
+		if (annotations.hasAny(AnnotationIndex.ONE_TO_ONE)) {
+			return ONE_TO_ONE;
+		}
+		if (annotations.hasAny(AnnotationIndex.ONE_TO_MANY)) {
+			return ONE_TO_MANY;
+		}
+		return MANY_TO_MANY;
+	}
+}
@@ -0,0 +1,636 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A property path, simple or nested, parsed and resolved once for a bean
+ * class.
+ * <p>
+ * Paths use the commons-beanutils syntax: dot separated segments, each one a
+ * property name optionally followed by an index, as in {@code friends[3].name},
+ * or by a key, as in {@code attributes(color)}. Indexes apply to lists, arrays
+ * and, in iteration order, other collections; keys apply to maps.
+ * </p>
+ * <p>
+ * Each segment holds the {@link PropertyAccessor} of its property, resolved
+ * against the type declared by the previous segment, generic element types
+ * included. So walking a path is a chain of direct calls, with no string
+ * parsing nor property lookup. Segments whose declared type is not known, or
+ * is a {@link Map} or a {@link DynaBean}, are resolved against the runtime
+ * type of each value instead. Indexed and mapped segments of beans with no
+ * plain getter for the property, only indexed ({@code getName(int)}) or
+ * mapped ({@code getAttribute(String)}) read methods, are read through
+ * {@link PropertyUtils}, as commons-beanutils does.
+ * </p>
+ * <p>
+ * {@link #get(Object)} returns null when a bean on the way is null, and
+ * {@link #read(Object)} also tells that apart from a null value, with no
+ * exception thrown in either case.
+ * </p>
+ * Paths are cached per class, up to {@link #MAX_PATHS_PER_CLASS}, in a
+ * {@link ClassValue}, so they don't prevent the bean classes from being
+ * unloaded. Instances are immutable and can be shared between threads.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public final class PropertyPath {
+
+	/**
+	 * Maximum number of paths cached per bean class
+	 */
+	static final int MAX_PATHS_PER_CLASS = 1024;
+
+	/**
+	 * Marks the segments that could not be read
+	 */
+	private static final Object ABSENT = new Object();
+
+	private static final ClassValue<ConcurrentMap<String, PropertyPath>> PATHS =
+			new ClassValue<ConcurrentMap<String, PropertyPath>>() {
+				@Override
+				protected ConcurrentMap<String, PropertyPath> computeValue(Class<?> type) {
+					return new ConcurrentHashMap<>();
+				}
+			};
+
+	private final Class<?> beanClass;
+
+	private final String path;
+
+	private final Segment[] segments;
+
+	private final Class<?> type;
+
+	private PropertyPath(Class<?> beanClass, String path, Segment[] segments, Class<?> type) {
+		this.beanClass = beanClass;
+		this.path = path;
+		this.segments = segments;
+		this.type = type;
+	}
+
+	/**
+	 * Returns the path for the given class, parsing and resolving it on the
+	 * first call.
+	 *
+	 * @param beanClass the class of the beans the path is read from
+	 * @param path      the property path
+	 * @return the compiled path
+	 * @throws IllegalArgumentException if the path is malformed
+	 */
+	public static PropertyPath of(Class<?> beanClass, String path) {
+		ConcurrentMap<String, PropertyPath> paths = PATHS.get(beanClass);
+		PropertyPath compiled = paths.get(path);
+		if (compiled == null) {
+			compiled = compile(beanClass, path);
+			if (paths.size() < MAX_PATHS_PER_CLASS) {
+				PropertyPath previous = paths.putIfAbsent(path, compiled);
+				if (previous != null) {
+					compiled = previous;
+				}
+			}
+		}
+		return compiled;
+	}
+
+	private static PropertyPath compile(Class<?> beanClass, String path) {
+		if (path == null || path.isEmpty()) {
+			throw malformed(path, "it is empty");
+		}
+		List<Segment> segments = new ArrayList<>();
+		Type declared = beanClass;
+		int end = -1;
+		while (end < path.length()) {
+			Segment segment = parseSegment(path, end + 1, declared);
+			segments.add(segment);
+			declared = segment.valueType;
+			end = segment.end;
+		}
+		return new PropertyPath(beanClass, path, segments.toArray(new Segment[0]), rawType(declared));
+	}
+
+	/**
+	 * Parses the segment starting at the given position, up to the next dot
+	 * or the end of the path
+	 */
+	private static Segment parseSegment(String path, int start, Type declared) {
+		int position = start;
+		while (position < path.length() && isNameChar(path.charAt(position))) {
+			position++;
+		}
+		if (position == start) {
+			throw malformed(path, "a property name is expected at " + start);
+		}
+		String name = path.substring(start, position);
+		int index = -1;
+		String key = null;
+		if (position < path.length() && path.charAt(position) == '[') {
+			int close = path.indexOf(']', position);
+			if (close == -1) {
+				throw malformed(path, "unclosed index at " + position);
+			}
+			try {
+				index = Integer.parseInt(path.substring(position + 1, close));
+			} catch (NumberFormatException ex) {
+				index = -1;
+			}
+			if (index < 0) {
+				throw malformed(path, "the index at " + position + " is not a non negative integer");
+			}
+			position = close + 1;
+		} else if (position < path.length() && path.charAt(position) == '(') {
+			int close = path.indexOf(')', position);
+			if (close == -1) {
+				throw malformed(path, "unclosed key at " + position);
+			}
+			key = path.substring(position + 1, close);
+			position = close + 1;
+		}
+		if (position < path.length() && path.charAt(position) != '.') {
+			throw malformed(path, "unexpected character at " + position);
+		}
+		if (position == path.length() - 1) {
+			throw malformed(path, "it ends with a dot");
+		}
+		return new Segment(path.substring(start, position), name, index, key, rawType(declared), position);
+	}
+
+	private static boolean isNameChar(char c) {
+		return c != '.' && c != '[' && c != ']' && c != '(' && c != ')';
+	}
+
+	private static IllegalArgumentException malformed(String path, String reason) {
+		return new IllegalArgumentException("Invalid property path [" + path + "]: " + reason);
+	}
+
+	/**
+	 * Returns the class of the given type, Object if it is a type variable or
+	 * a wildcard
+	 */
+	private static Class<?> rawType(Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		}
+		if (type instanceof ParameterizedType) {
+			return rawType(((ParameterizedType) type).getRawType());
+		}
+		if (type instanceof GenericArrayType) {
+			return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		}
+		return Object.class;
+	}
+
+	/**
+	 * Returns the type of the elements of the given array or collection type,
+	 * or of the values of the given map type, Object if it is not known
+	 */
+	private static Type elementType(Type type, boolean keyed) {
+		if (type instanceof Class && ((Class<?>) type).isArray()) {
+			return ((Class<?>) type).getComponentType();
+		}
+		if (type instanceof GenericArrayType) {
+			return ((GenericArrayType) type).getGenericComponentType();
+		}
+		if (type instanceof ParameterizedType) {
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			int argument = keyed ? 1 : 0;
+			if (arguments.length > argument) {
+				return arguments[argument];
+			}
+		}
+		return Object.class;
+	}
+
+	/**
+	 * Returns the value of the path on the given bean, or null if the value
+	 * of any segment is null.
+	 *
+	 * @throws IllegalArgumentException if a property is unknown or not readable, an index is out of bounds or
+	 *                                  a value can't be indexed
+	 */
+	public Object get(Object bean) {
+		Object value = bean;
+		for (Segment segment : segments) {
+			if (value == null) {
+				return null;
+			}
+			value = segment.get(value);
+		}
+		return value;
+	}
+
+	/**
+	 * Reads the value of the path on the given bean, telling a null value apart
+	 * from an absent path: one with a null bean on the way to it, an index out
+	 * of bounds or a key not mapped. Nothing is thrown for absent paths.
+	 * Mapped read methods don't tell a missing key from a null value, so
+	 * their keys always read as present.
+	 *
+	 * @throws IllegalArgumentException if a property is unknown or not readable, or a value can't be indexed
+	 */
+	public PropertyValue read(Object bean) {
+		Object value = bean;
+		for (int i = 0; i < segments.length; i++) {
+			if (value == null) {
+				return PropertyValue.absent(i);
+			}
+			value = segments[i].read(value);
+			if (value == ABSENT) {
+				return PropertyValue.absent(i);
+			}
+		}
+		return PropertyValue.of(value);
+	}
+
+	/**
+	 * Sets the value of the path on the given bean. Lists and arrays are set
+	 * at the index, and maps at the key. No conversion is done.
+	 *
+	 * @throws IllegalArgumentException if the value of a segment other than the last is null, a property is
+	 *                                  unknown, not readable or not writable, or an index is out of bounds
+	 */
+	public void set(Object bean, Object value) {
+		Object target = bean;
+		int last = segments.length - 1;
+		for (int i = 0; i < last; i++) {
+			if (target == null) {
+				break;
+			}
+			target = segments[i].get(target);
+		}
+		if (target == null) {
+			throw new IllegalArgumentException("Null property value for [" + path + "] on [" + beanClass + "]");
+		}
+		segments[last].set(target, value);
+	}
+
+	/**
+	 * Returns true if the values of all the segments but the last are not
+	 * null on the given bean, and the last property can be read.
+	 */
+	public boolean isReadable(Object bean) {
+		Object target = bean;
+		try {
+			for (int i = 0; i < segments.length - 1 && target != null; i++) {
+				target = segments[i].get(target);
+			}
+		} catch (IllegalArgumentException ex) {
+			return false;
+		}
+		return target != null && segments[segments.length - 1].isReadable(target);
+	}
+
+	/**
+	 * Returns true if the path can be read on the given bean, as
+	 * {@link PropertyUtils#isReadable(Object, String)} does: unknown
+	 * properties are not readable, and null beans on the way to the last
+	 * segment are an error.
+	 *
+	 * @throws NestedNullException if the value of a segment other than the last is null
+	 */
+	boolean checkReadable(Object bean) {
+		Object target = bean;
+		int last = segments.length - 1;
+		for (int i = 0; i < last; i++) {
+			Object value;
+			try {
+				value = segments[i].get(target);
+			} catch (IllegalArgumentException ex) {
+				return false;
+			}
+			if (value == null) {
+				throw new NestedNullException("Null property value for '" + segments[i].expression
+						+ "' on bean class '" + target.getClass() + "'");
+			}
+			target = value;
+		}
+		return segments[last].isReadable(target);
+	}
+
+	/**
+	 * Returns the class the path was compiled for
+	 */
+	public Class<?> getBeanClass() {
+		return beanClass;
+	}
+
+	/**
+	 * Returns the path
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns the declared type of the path value, Object if it is only known
+	 * at runtime
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the number of segments
+	 */
+	public int size() {
+		return segments.length;
+	}
+
+	/**
+	 * Returns true if the path has more than one segment
+	 */
+	public boolean isNested() {
+		return segments.length > 1;
+	}
+
+	@Override
+	public String toString() {
+		return "PropertyPath{" + beanClass.getName() + ": " + path + "}";
+	}
+
+	/**
+	 * A path segment: a property, optionally followed by an index or a key
+	 */
+	private static final class Segment {
+
+		/**
+		 * The segment as written in the path, e.g. "name[1]"
+		 */
+		final String expression;
+
+		final String name;
+
+		final int index;
+
+		final String key;
+
+		/**
+		 * The class the property was resolved against
+		 */
+		final Class<?> declaringType;
+
+		/**
+		 * The accessor of the property, or null if it is resolved at runtime
+		 */
+		final PropertyAccessor accessor;
+
+		/**
+		 * The declared type of the segment value, after the index or key
+		 */
+		final Type valueType;
+
+		/**
+		 * The position following the segment in the path
+		 */
+		final int end;
+
+		Segment(String expression, String name, int index, String key, Class<?> declaringType, int end) {
+			this.expression = expression;
+			this.name = name;
+			this.index = index;
+			this.key = key;
+			this.declaringType = declaringType;
+			this.end = end;
+			PropertyAccessor accessor = null;
+			if (declaringType != Object.class && !Map.class.isAssignableFrom(declaringType)
+					&& !DynaBean.class.isAssignableFrom(declaringType)) {
+				accessor = BeanIntrospection.forClass(declaringType).getAccessor(name);
+			}
+			this.accessor = accessor;
+			Type propertyType = accessor == null ? Object.class : accessor.getGenericType();
+			this.valueType = index >= 0 || key != null ? elementType(propertyType, key != null) : propertyType;
+		}
+
+		Object get(Object target) {
+			if (isIndexedOrMappedMethod(target)) {
+				try {
+					return PropertyUtils.getProperty(target, expression);
+				} catch (IndexOutOfBoundsException ex) {
+					throw new IllegalArgumentException(ex.toString(), ex);
+				} catch (Exception ex) {
+					throw beanUtilsFailure(target, ex);
+				}
+			}
+			Object value = property(target);
+			if (value == null || (index < 0 && key == null)) {
+				return value;
+			}
+			return key != null ? mapped(value).get(key) : element(value);
+		}
+
+		/**
+		 * Returns the value of the segment, or {@link #ABSENT} if the
+		 * container is null, the index is out of bounds or the key is not mapped
+		 */
+		Object read(Object target) {
+			if (isIndexedOrMappedMethod(target)) {
+				try {
+					return PropertyUtils.getProperty(target, expression);
+				} catch (IndexOutOfBoundsException ex) {
+					return ABSENT;
+				} catch (Exception ex) {
+					throw beanUtilsFailure(target, ex);
+				}
+			}
+			Object value = property(target);
+			if (index < 0 && key == null) {
+				return value;
+			}
+			if (value == null) {
+				return ABSENT;
+			}
+			if (key != null) {
+				Map<?, ?> map = mapped(value);
+				Object mappedValue = map.get(key);
+				return mappedValue != null || map.containsKey(key) ? mappedValue : ABSENT;
+			}
+			return index < length(value) ? element(value) : ABSENT;
+		}
+
+		void set(Object target, Object value) {
+			if (index < 0 && key == null) {
+				setProperty(target, value);
+				return;
+			}
+			if (isIndexedOrMappedMethod(target)) {
+				try {
+					PropertyUtils.setProperty(target, expression, value);
+				} catch (IndexOutOfBoundsException ex) {
+					throw new IllegalArgumentException(ex.toString(), ex);
+				} catch (Exception ex) {
+					throw beanUtilsFailure(target, ex);
+				}
+				return;
+			}
+			Object container = property(target);
+			if (container == null) {
+				throw new IllegalArgumentException("Null property value for [" + name + "] on [" + target.getClass()
+						+ "]");
+			}
+			if (key != null) {
+				@SuppressWarnings("unchecked")
+				Map<Object, Object> map = (Map<Object, Object>) mapped(container);
+				map.put(key, value);
+			} else if (container instanceof List) {
+				@SuppressWarnings("unchecked")
+				List<Object> list = (List<Object>) container;
+				checkIndex(list.size());
+				list.set(index, value);
+			} else if (container.getClass().isArray()) {
+				checkIndex(Array.getLength(container));
+				Array.set(container, index, value);
+			} else {
+				throw new IllegalArgumentException("The property [" + name + "] of [" + target.getClass()
+						+ "] is not a list nor an array");
+			}
+		}
+
+		boolean isReadable(Object target) {
+			if (isIndexedOrMappedMethod(target)) {
+				return PropertyUtils.isReadable(target, expression);
+			}
+			if (accessor != null && declaringType.isInstance(target)) {
+				return accessor.isReadable();
+			}
+			if (target instanceof Map) {
+				return true;
+			}
+			if (target instanceof DynaBean) {
+				return ((DynaBean) target).getDynaClass().getDynaProperty(name) != null;
+			}
+			return BeanIntrospection.forClass(target.getClass()).isReadable(name);
+		}
+
+		/**
+		 * Returns true if the segment is indexed or mapped, and the given bean
+		 * has no plain getter for the property, so it is left to the indexed
+		 * or mapped read methods {@link PropertyUtils} resolves
+		 */
+		private boolean isIndexedOrMappedMethod(Object target) {
+			if ((index < 0 && key == null) || target instanceof Map || target instanceof DynaBean) {
+				return false;
+			}
+			if (accessor != null && declaringType.isInstance(target)) {
+				return !accessor.isReadable();
+			}
+			return !BeanIntrospection.forClass(target.getClass()).isReadable(name);
+		}
+
+		private IllegalArgumentException beanUtilsFailure(Object target, Exception ex) {
+			if (ex instanceof NoSuchMethodException) {
+				return new IllegalArgumentException("Unknown property [" + name + "] on [" + target.getClass() + "]",
+						ex);
+			}
+			if (ex instanceof InvocationTargetException) {
+				Throwable cause = ex.getCause();
+				return new IllegalArgumentException(cause.toString(), cause);
+			}
+			if (ex instanceof IllegalArgumentException) {
+				return (IllegalArgumentException) ex;
+			}
+			return new IllegalArgumentException(ex.toString(), ex);
+		}
+
+		private Object property(Object target) {
+			if (accessor != null && declaringType.isInstance(target)) {
+				return accessor.get(target);
+			}
+			if (target instanceof Map) {
+				return ((Map<?, ?>) target).get(name);
+			}
+			if (target instanceof DynaBean) {
+				return ((DynaBean) target).get(name);
+			}
+			PropertyAccessor runtime = BeanIntrospection.forClass(target.getClass()).getAccessor(name);
+			if (runtime == null || !runtime.isReadable()) {
+				throw new IllegalArgumentException("Unknown property [" + name + "] on [" + target.getClass() + "]");
+			}
+			return runtime.get(target);
+		}
+
+		private void setProperty(Object target, Object value) {
+			if (accessor != null && declaringType.isInstance(target)) {
+				accessor.set(target, value);
+			} else if (target instanceof Map) {
+				@SuppressWarnings("unchecked")
+				Map<Object, Object> map = (Map<Object, Object>) target;
+				map.put(name, value);
+			} else if (target instanceof DynaBean) {
+				((DynaBean) target).set(name, value);
+			} else {
+				PropertyAccessor runtime = BeanIntrospection.forClass(target.getClass()).getAccessor(name);
+				if (runtime == null) {
+					throw new IllegalArgumentException("Unknown property [" + name + "] on [" + target.getClass()
+							+ "]");
+				}
+				runtime.set(target, value);
+			}
+		}
+
+		private Object element(Object container) {
+			if (container instanceof List) {
+				List<?> list = (List<?>) container;
+				checkIndex(list.size());
+				return list.get(index);
+			}
+			if (container.getClass().isArray()) {
+				checkIndex(Array.getLength(container));
+				return Array.get(container, index);
+			}
+			if (container instanceof Collection) {
+				Collection<?> collection = (Collection<?>) container;
+				checkIndex(collection.size());
+				Iterator<?> iterator = collection.iterator();
+				for (int i = 0; i < index; i++) {
+					iterator.next();
+				}
+				return iterator.next();
+			}
+			throw new IllegalArgumentException("The property [" + name + "] of type [" + container.getClass()
+					+ "] can't be indexed");
+		}
+
+		/**
+		 * Returns the number of elements of the given collection or array,
+		 * unbounded for other values, which {@link #element(Object)} rejects
+		 */
+		private static int length(Object container) {
+			if (container instanceof Collection) {
+				return ((Collection<?>) container).size();
+			}
+			if (container.getClass().isArray()) {
+				return Array.getLength(container);
+			}
+			return Integer.MAX_VALUE;
+		}
+
+		private Map<?, ?> mapped(Object container) {
+			if (!(container instanceof Map)) {
+				throw new IllegalArgumentException("The property [" + name + "] of type [" + container.getClass()
+						+ "] is not a map");
+			}
+			return (Map<?, ?>) container;
+		}
+
+		private void checkIndex(int size) {
+			if (index >= size) {
+				throw new IllegalArgumentException("Index [" + index + "] out of bounds for the property [" + name
+						+ "] of size " + size);
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.sif.beans;
+
+/**
+ * The result of reading a {@link PropertyPath} with
+ * {@link PropertyPath#read(Object)}: either the value of the path, which can
+ * be null, or the absence of the path, when a bean on the way to it is null,
+ * an index is out of bounds or a key is not mapped.
+ * <p>
+ * Absent results tell which segment could not be reached, and are shared, so
+ * reading sparse graphs builds neither exceptions nor messages.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public final class PropertyValue {
+
+	private static final PropertyValue NULL = new PropertyValue(true, null, -1);
+
+	/**
+	 * The absent results of the first segments
+	 */
+	private static final PropertyValue[] ABSENT = new PropertyValue[16];
+
+	static {
+		for (int i = 0; i < ABSENT.length; i++) {
+			ABSENT[i] = new PropertyValue(false, null, i);
+		}
+	}
+
+	private final boolean present;
+
+	private final Object value;
+
+	private final int absentSegment;
+
+	private PropertyValue(boolean present, Object value, int absentSegment) {
+		this.present = present;
+		this.value = value;
+		this.absentSegment = absentSegment;
+	}
+
+	/**
+	 * Returns a present result with the given value
+	 */
+	static PropertyValue of(Object value) {
+		return value == null ? NULL : new PropertyValue(true, value, -1);
+	}
+
+	/**
+	 * Returns the absent result of paths that can't be read past the given
+	 * segment
+	 */
+	static PropertyValue absent(int segment) {
+		return segment < ABSENT.length ? ABSENT[segment] : new PropertyValue(false, null, segment);
+	}
+
+	/**
+	 * Returns true if the path was read, even if its value is null
+	 */
+	public boolean isPresent() {
+		return present;
+	}
+
+	/**
+	 * Returns true if the path could not be read
+	 */
+	public boolean isAbsent() {
+		return !present;
+	}
+
+	/**
+	 * Returns the value of the path, null if it is absent
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the value of the path, or the given value if it is absent
+	 */
+	public Object orElse(Object other) {
+		return present ? value : other;
+	}
+
+	/**
+	 * Returns the position, starting at 0, of the segment whose value could not
+	 * be read, or -1 if the path is present
+	 */
+	public int getAbsentSegment() {
+		return absentSegment;
+	}
+
+	@Override
+	public String toString() {
+		return present ? "PropertyValue{" + value + "}" : "PropertyValue{absent at segment " + absentSegment + "}";
+	}
+}
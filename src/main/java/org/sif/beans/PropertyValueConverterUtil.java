@@ -1,23 +1,20 @@
 package org.sif.beans;
 
-import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.ConversionException;
 import org.apache.commons.beanutils.Converter;
-import org.apache.commons.beanutils.converters.*;
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.sif.beans.converters.IgnoreEmptyConverter;
-import org.sif.beans.converters.SerializableConverter;
+import org.apache.commons.lang3.ClassUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
 import javax.inject.Named;
-import java.io.Serializable;
 import java.lang.reflect.Array;
-import java.sql.Timestamp;
 import java.util.*;
 
 import static org.sif.beans.Classes.*;
-import static org.sif.beans.Debugger.debug;
+import static org.sif.beans.Debugger.TRACE;
+import static org.sif.beans.Debugger.lazy;
+import static org.sif.beans.Debugger.typeName;
 
 /**
  * Utility class for converting a simple value to a provided class.
@@ -33,51 +30,63 @@ public class PropertyValueConverterUtil<T> {
 
 	Logger log = LoggerFactory.getLogger(getClass());
 
+	private ConverterRegistry converterRegistry = ConverterRegistry.getDefault();
+
+	private volatile CollectionUtil collectionUtil;
+
+	private volatile BindingMetrics metrics = BindingMetrics.NOOP;
+
+	/**
+	 * Sets the registry of the converters used by this instance. By default the
+	 * shared {@link ConverterRegistry#getDefault()} registry is used.
+	 */
+	@Inject
+	public void setConverterRegistry(ConverterRegistry converterRegistry) {
+		this.converterRegistry = converterRegistry;
+	}
+
+	public ConverterRegistry getConverterRegistry() {
+		return converterRegistry;
+	}
+
+	public BindingMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics recording the conversion failures, by target type. By
+	 * default nothing is recorded.
+	 */
+	public void setMetrics(BindingMetrics metrics) {
+		this.metrics = metrics == null ? BindingMetrics.NOOP : metrics;
+	}
+
 	/**
-	 * Register converters without using the default value
-	 */ {
-		registerConverters();
+	 * Sets the collection util used to create collections. By default one is
+	 * created on first use.
+	 */
+	@Inject
+	public void setCollectionUtil(CollectionUtil collectionUtil) {
+		this.collectionUtil = collectionUtil;
+	}
+
+	CollectionUtil collectionUtil() {
+		CollectionUtil collectionUtil = this.collectionUtil;
+		if (collectionUtil == null) {
+			collectionUtil = new CollectionUtil();
+			collectionUtil.setConverterUtil(this);
+			this.collectionUtil = collectionUtil;
+		}
+		return collectionUtil;
 	}
 
+	/**
+	 * Registers the converters of this instance registry in the global
+	 * {@link org.apache.commons.beanutils.ConvertUtils} registry. This instance
+	 * doesn't need it, as it looks the converters up in its own registry.
+	 */
 	public void registerConverters() {
-		Converter booleanConverter = new IgnoreEmptyConverter(new BooleanConverter());
-		ConvertUtils.register(booleanConverter, Boolean.TYPE);
-		ConvertUtils.register(booleanConverter, Boolean.class);
-
-		Converter byteConverter = new IgnoreEmptyConverter(new ByteConverter());
-		ConvertUtils.register(byteConverter, Byte.TYPE);
-		ConvertUtils.register(byteConverter, Byte.class);
-
-		Converter shortConverter = new IgnoreEmptyConverter(new ShortConverter());
-		ConvertUtils.register(shortConverter, Short.TYPE);
-		ConvertUtils.register(shortConverter, Short.class);
-
-		Converter intConverter = new IgnoreEmptyConverter(new IntegerConverter());
-		ConvertUtils.register(intConverter, Integer.TYPE);
-		ConvertUtils.register(intConverter, Integer.class);
-
-		Converter longConverter = new IgnoreEmptyConverter(new LongConverter());
-		ConvertUtils.register(longConverter, Long.TYPE);
-		ConvertUtils.register(longConverter, Long.class);
-
-		Converter floatConverter = new IgnoreEmptyConverter(new FloatConverter());
-		ConvertUtils.register(floatConverter, Float.TYPE);
-		ConvertUtils.register(floatConverter, Float.class);
-
-		Converter doubleConverter = new IgnoreEmptyConverter(new DoubleConverter());
-		ConvertUtils.register(doubleConverter, Double.TYPE);
-		ConvertUtils.register(doubleConverter, Double.class);
-
-		Converter dateConverter = new IgnoreEmptyConverter(new DateConverter());
-		ConvertUtils.register(dateConverter, java.util.Date.class);
-		ConvertUtils.register(dateConverter, java.sql.Date.class);
-		ConvertUtils.register(dateConverter, Timestamp.class);
-
-		Converter serializableConverter = new SerializableConverter();
-		ConvertUtils.register(serializableConverter, Serializable.class);
-		//ConvertUtils.register(new CommonsDateConverter(), java.util.Date.class);
-		//ConvertUtils.register(new CommonsDateConverter(), java.sql.Date.class);
-		//ConvertUtils.register(new CommonsDateConverter(), java.sql.Timestamp.class);
+		converterRegistry.registerGlobally();
 	}
 
 	/**
@@ -89,12 +98,17 @@ public class PropertyValueConverterUtil<T> {
 	 * @return as list of the given type with the given elements
 	 */
 	public List<T> asList(Class<T> elementType, Object value) {
-		log.debug("Converting value {} of class: {}, to a List of type: {} ...", debug(value), classFor(value).getSimpleName(), elementType);
-		log.debug("Converting to List...");
+		boolean debug = TRACE && log.isDebugEnabled();
+		if (debug) {
+			log.debug("Converting value {} of class: {}, to a List of type: {} ...", lazy(value), typeName(value),
+					elementType);
+		}
 		// The given object is an array.
 		List<T> resultingList = (List<T>) valueListToCollection(value, List.class, elementType);
-		log.debug("The resultingList class from Arrays.asList: {}", classFor(resultingList).getSimpleName());
-		log.debug("The resulting list with size({}) values: {}", resultingList.size(), resultingList);
+		if (debug) {
+			log.debug("The resulting list of class {} with size({}) values: {}", typeName(resultingList),
+					resultingList.size(), lazy(resultingList));
+		}
 		return resultingList;
 	}
 
@@ -103,34 +117,27 @@ public class PropertyValueConverterUtil<T> {
 	 * an appropriate {@link java.util.List} of elements converted to that type. The
 	 * resulting {@link java.util.List} type will depend on the provided array. If it
 	 * was an array of primitive types, the final {@link java.util.List} will contain
-	 * elements with the same type as the original array.
+	 * elements with the same type as the original array, boxed. In this case the
+	 * list is a read only view over the array, which is not copied.
 	 * @throws IllegalArgumentException if the provided value is not an array
 	 */
 	public List<?> asList(Object value) {
-		log.debug("Converting the array of class: "
-				+ classFor(value).getSimpleName() + " to a collection...");
+		boolean debug = TRACE && log.isDebugEnabled();
+		if (debug) {
+			log.debug("Converting the array of class: {} to a collection...", typeName(value));
+		}
 		if (Object[].class.isAssignableFrom(classFor(value))) {
 			List<T> resultingList = Arrays.asList((T[]) value);
-			log.debug("The resultingList class from Arrays.asList: "
-					+ classFor(resultingList).getSimpleName());
-			log.debug("The resulting list with size({}) values: {}", resultingList.size(), resultingList);
+			if (debug) {
+				log.debug("The resulting list with size({}) values: {}", resultingList.size(), lazy(resultingList));
+			}
 			return resultingList;
 		}
 		if (isPrimitiveArrayType(classFor(value))) {
-			log.debug("This is a primitive type array...");
-			if (isIntArray(classFor(value))) {
-				log.debug("Int array detected. Converting...");
-				int[] intArray = (int[]) value;
-				log.debug("Int array [" + intArray.length + "] : "
-						+ Arrays.toString(intArray));
-				Integer[] integerResultingList = ArrayUtils.toObject(intArray);
-				List<Integer> resultingList = Arrays
-						.asList(integerResultingList);
-				log.debug("The resulting list with size({}) values: {}", resultingList.size(), resultingList);
-				return resultingList;
-			} else {
-				return null;
+			if (debug) {
+				log.debug("This is a primitive type array. Using a list view over it...");
 			}
+			return PrimitiveArrays.asList(value);
 		} else {
 			throw new IllegalArgumentException(
 					"The value must be an object of some type array!!!");
@@ -139,55 +146,129 @@ public class PropertyValueConverterUtil<T> {
 
 	/**
 	 * Converts all elements of provided collection to the provided element
-	 * type.
+	 * type, adding them to the target collection.
 	 */
 	@SuppressWarnings({"rawtypes", "unchecked"})
-	private Collection<?> convertAll(Class<?> elementType, Collection<?> values) {
-		log.debug("Converting all values " + values + ", to type: "
-				+ elementType);
-		List convertedValues = new ArrayList();
+	private void convertAll(Class<?> elementType, Collection<?> values, Collection target) {
+		if (TRACE && log.isDebugEnabled()) {
+			log.debug("Converting all values {}, to type: {}", lazy(values), elementType);
+		}
+		boolean boxedElementType = ClassUtils.isPrimitiveWrapper(elementType);
 		for (Object valueToConvert : values) {
-			convertedValues.add(convert(elementType, valueToConvert));
+			target.add(convertElement(elementType, boxedElementType, valueToConvert));
 		}
-		return convertedValues;
+	}
+
+	/**
+	 * Converts a single collection element to the given element type, as the
+	 * collection conversions do.
+	 */
+	Object convertElement(Class<?> elementType, Object value) {
+		return convertElement(elementType, ClassUtils.isPrimitiveWrapper(elementType), value);
+	}
+
+	private Object convertElement(Class<?> elementType, boolean boxedElementType, Object value) {
+		if (boxedElementType && elementType.isInstance(value)) {
+			// The elements of primitive array views need no conversion
+			return value;
+		}
+		return convert(elementType, value);
 	}
 
 	/**
 	 * Converts the provided value, that must be a String with numbers separated
-	 * with commas, to a Collection of collectionType with elements of
-	 * elementType.
+	 * with commas, to elements of elementType, adding them to the target
+	 * collection. The tokens are trimmed and converted in a single pass. Long
+	 * and int tokens with the default converters are parsed straight from the
+	 * value, as {@link #toLongArray(Object)} does, and only the parsed value is
+	 * boxed.
 	 */
 	@SuppressWarnings({"rawtypes", "unchecked"})
-	private Collection stringArrayToCollection(String value,
-											   Class<? extends Collection> collectionType, Class<?> elementType) {
-		CollectionUtil collectionUtil = new CollectionUtil();
-		Collection collection = collectionUtil.newCollection(collectionType);
-		log.debug("Created new collection instance: "
-				+ classFor(collection).getSimpleName());
-		List<String> stringList = Arrays.asList(StringUtils.split(value, ","));
-		log.debug("Created a simple string list for the comma separated values: "
-				+ stringList);
-		for (String str : stringList) {
-			String trimmed = str.trim();
-			log.trace("Conventing the list element " + debug(trimmed)
-					+ " to the provided type [" + elementType.getSimpleName());
-			Object convertedElement = convert(elementType, trimmed);
-			log.trace("Converted element type: "
-					+ classFor(convertedElement).getSimpleName());
-			collection.add(convertedElement);
-		}
-		return collection;
+	private void stringArrayToCollection(CharSequence value, Class<?> elementType, Collection target) {
+		CommaSeparatedTokenizer tokenizer = new CommaSeparatedTokenizer(value);
+		boolean isLong = elementType == Long.class || elementType == Long.TYPE;
+		boolean isInt = elementType == Integer.class || elementType == Integer.TYPE;
+		if ((isLong || isInt) && converterRegistry.hasDefaultConverter(elementType)) {
+			try {
+				while (tokenizer.next()) {
+					if (isLong) {
+						target.add(tokenizer.toLong());
+					} else {
+						target.add(tokenizer.toInt());
+					}
+				}
+			} catch (ConversionException ex) {
+				throw conversionFailed(elementType, ex);
+			}
+			return;
+		}
+		while (tokenizer.next()) {
+			String token = tokenizer.token();
+			if (TRACE && log.isTraceEnabled()) {
+				log.trace("Converting the list element {} to the provided type [{}]", lazy(token),
+						typeName(elementType));
+			}
+			target.add(convert(elementType, token));
+		}
+	}
+
+	/**
+	 * Converts the value to a long array. Comma separated values are parsed
+	 * straight into the array, with no intermediate strings nor boxing, unless
+	 * the default long converter was replaced, and primitive numeric arrays
+	 * are copied in a single loop (long arrays are returned as they are). The
+	 * tokens of comma separated values with a replaced converter and the
+	 * elements of collections and arrays are converted by
+	 * {@link #convertToLong(Object)}, and a single value results in a one
+	 * element array.
+	 *
+	 * @param value the value to convert
+	 * @return the long array, empty if the value is null
+	 * @throws org.sif.beans.converters.IgnoreConversionException if an element is empty
+	 * @throws org.apache.commons.beanutils.ConversionException if an element is not a long
+	 */
+	public long[] toLongArray(Object value) {
+		if (value == null) {
+			return new long[0];
+		}
+		if (PrimitiveArrays.isNumericArray(value)) {
+			return PrimitiveArrays.toLongArray(value);
+		}
+		if (value instanceof CharSequence) {
+			if (!converterRegistry.hasDefaultConverter(Long.TYPE)) {
+				return toLongArray(CommaSeparatedTokenizer.tokens((CharSequence) value));
+			}
+			return CommaSeparatedTokenizer.toLongArray((CharSequence) value);
+		}
+		if (value instanceof Collection) {
+			Collection<?> values = (Collection<?>) value;
+			long[] result = new long[values.size()];
+			int i = 0;
+			for (Object element : values) {
+				result[i++] = convertToLong(element);
+			}
+			return result;
+		}
+		if (value instanceof Object[]) {
+			Object[] values = (Object[]) value;
+			long[] result = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				result[i] = convertToLong(values[i]);
+			}
+			return result;
+		}
+		return new long[]{convertToLong(value)};
 	}
 
 	/**
 	 * Converts the value to a compatible type on the target bean and property.
 	 */
 	public Object convert(Class<?> beanClass, String beanProperty, Object value) {
-		log.debug("Getting the type for property [" + beanProperty
-				+ "] of class [" + beanClass + "].");
 		Class<?> fieldType = getFieldClass(beanClass, beanProperty);
-		log.debug("Trying to convert value " + debug(value)
-				+ " to target Field Type [" + fieldType + "]");
+		if (TRACE && log.isDebugEnabled()) {
+			log.debug("Trying to convert value {} of property [{}] of class [{}] to target Field Type [{}]",
+					lazy(value), beanProperty, beanClass, fieldType);
+		}
 		return this.convert(fieldType, value);
 	}
 
@@ -210,8 +291,10 @@ public class PropertyValueConverterUtil<T> {
 			log.debug("Value is null. No conversion!");
 			return null;
 		}
-		log.debug("Trying to convert value {} of class: {}, to target Class [{}]",
-				debug(value), value.getClass(), clazz);
+		if (TRACE && log.isDebugEnabled()) {
+			log.debug("Trying to convert value {} of class: {}, to target Class [{}]", lazy(value),
+					value.getClass(), clazz);
+		}
 		if (Collection.class.isAssignableFrom(clazz)) {
 			/*log.debug("This class [{}] is a collection! Using valueToCollection ...", clazz);
 			Collection col = (Collection) value;
@@ -236,75 +319,224 @@ public class PropertyValueConverterUtil<T> {
 			Collection colValue = (Collection) value;
 			if (!colValue.isEmpty()) {
 				value = colValue.iterator().next();
-				log.warn("Converted the collection element to: {}", debug(value));
+				log.warn("Converted the collection element to: {}", lazy(value));
 			}
 		}
-		log.debug("Converting {} to [{}]", debug(value), clazz);
-		Converter converter = ConvertUtils.lookup(clazz);
-		log.debug("Converter found: {}", converter);
+		if (TRACE && log.isDebugEnabled()) {
+			log.debug("Converting {} to [{}]", lazy(value), clazz);
+		}
+		Converter converter = converterRegistry.lookup(clazz);
+		if (TRACE) {
+			log.debug("Converter found: {}", converter);
+		}
 		if (converter == null) {
 			// Do not throw NPE. Log and return null
 			log.error("No converter found for class {}", clazz);
 			return null;
 		}
-		convertedValue = converter.convert(clazz, value);
-		log.debug("Converted value: {}", debug(convertedValue));
-		if (convertedValue != null) {
-			log.debug("ConvertedType: {}", classFor(convertedValue));
+		try {
+			convertedValue = converter.convert(clazz, value);
+		} catch (ConversionException ex) {
+			throw conversionFailed(clazz, ex);
+		}
+		if (TRACE && convertedValue != null && log.isDebugEnabled()) {
+			log.debug("Converted value: {}", lazy(convertedValue));
+			log.debug("ConvertedType: {}", convertedValue.getClass());
 		}
 		return convertedValue;
 	}
 
+	/**
+	 * Converts the value to an int. Character sequences are parsed directly,
+	 * with no boxing, unless the default int converter was replaced. Other
+	 * values are converted by {@link #convert(Class, Object)}.
+	 *
+	 * @param value the value to convert
+	 * @return the value as an int
+	 * @throws IllegalArgumentException if the value is null
+	 * @throws org.sif.beans.converters.IgnoreConversionException if the value is empty
+	 * @throws org.apache.commons.beanutils.ConversionException if the value is not an int
+	 */
+	public int convertToInt(Object value) {
+		if (value instanceof Integer) {
+			return (Integer) value;
+		}
+		if (value instanceof CharSequence && converterRegistry.hasDefaultConverter(Integer.TYPE)) {
+			try {
+				return NumberParser.parseInt((CharSequence) value);
+			} catch (ConversionException ex) {
+				throw conversionFailed(Integer.TYPE, ex);
+			}
+		}
+		return ((Number) convertPrimitive(Integer.TYPE, value)).intValue();
+	}
+
+	/**
+	 * Converts the value to a long. Character sequences are parsed directly,
+	 * with no boxing, unless the default long converter was replaced. Other
+	 * values are converted by {@link #convert(Class, Object)}.
+	 *
+	 * @param value the value to convert
+	 * @return the value as a long
+	 * @throws IllegalArgumentException if the value is null
+	 * @throws org.sif.beans.converters.IgnoreConversionException if the value is empty
+	 * @throws org.apache.commons.beanutils.ConversionException if the value is not a long
+	 */
+	public long convertToLong(Object value) {
+		if (value instanceof Long) {
+			return (Long) value;
+		}
+		if (value instanceof CharSequence && converterRegistry.hasDefaultConverter(Long.TYPE)) {
+			try {
+				return NumberParser.parseLong((CharSequence) value);
+			} catch (ConversionException ex) {
+				throw conversionFailed(Long.TYPE, ex);
+			}
+		}
+		return ((Number) convertPrimitive(Long.TYPE, value)).longValue();
+	}
+
+	/**
+	 * Converts the value to a double. Character sequences are parsed directly,
+	 * with no boxing, unless the default double converter was replaced. Other
+	 * values are converted by {@link #convert(Class, Object)}.
+	 *
+	 * @param value the value to convert
+	 * @return the value as a double
+	 * @throws IllegalArgumentException if the value is null
+	 * @throws org.sif.beans.converters.IgnoreConversionException if the value is empty
+	 * @throws org.apache.commons.beanutils.ConversionException if the value is not a double
+	 */
+	public double convertToDouble(Object value) {
+		if (value instanceof Double) {
+			return (Double) value;
+		}
+		if (value instanceof CharSequence && converterRegistry.hasDefaultConverter(Double.TYPE)) {
+			try {
+				return NumberParser.parseDouble((CharSequence) value);
+			} catch (ConversionException ex) {
+				throw conversionFailed(Double.TYPE, ex);
+			}
+		}
+		return ((Number) convertPrimitive(Double.TYPE, value)).doubleValue();
+	}
+
+	/**
+	 * Records the conversion failure in the metrics and returns the exception
+	 */
+	private ConversionException conversionFailed(Class<?> type, ConversionException ex) {
+		metrics.recordConversionFailure(type);
+		return ex;
+	}
+
+	private Object convertPrimitive(Class<?> type, Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Can't convert a null value to a primitive [" + type + "]");
+		}
+		Object converted = convert(type, value);
+		if (converted == null) {
+			throw new IllegalArgumentException("Could not convert [" + value + "] to a primitive [" + type + "]");
+		}
+		return converted;
+	}
+
 	/**
 	 * This is a helper method capable to transform a raw value, either as a
 	 * string separated comma of values, a real collection of values or an array
 	 * of values to the provided collection class, whose elements will be of
 	 * provided type.
 	 */
-	@SuppressWarnings({"rawtypes", "unchecked"})
+	@SuppressWarnings("rawtypes")
 	public Collection<?> valueListToCollection(Object value,
 											   Class<? extends Collection> collectionType, Class<?> elementType) {
-		log.debug("The conversion from value {} to the collection type [{}] will result in elements of type [{}]",
-				debug(value), collectionType.getSimpleName(), elementType.getSimpleName());
-		CollectionUtil collectionUtil = new CollectionUtil();
+		return valueListToCollection(value, collectionType, elementType, false);
+	}
+
+	/**
+	 * Transforms a raw value to the provided collection class as
+	 * {@link #valueListToCollection(Object, Class, Class)} does. In lazy mode,
+	 * collections, arrays and comma separated values are not converted upfront:
+	 * a read only {@link LazyCollection} view is returned instead, which
+	 * converts the elements as they are read. It is a {@link List} or, if the
+	 * collection type is a {@link Set}, a {@link Set}. Single values are always
+	 * converted eagerly.
+	 *
+	 * @param value          the value to convert
+	 * @param collectionType the resulting collection type
+	 * @param elementType    the resulting elements type
+	 * @param lazy           whether to return a lazy view
+	 * @return the converted collection
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	public Collection<?> valueListToCollection(Object value,
+											   Class<? extends Collection> collectionType, Class<?> elementType,
+											   boolean lazy) {
+		if (TRACE && log.isDebugEnabled()) {
+			log.debug("The conversion from value {} to the collection type [{}] will result in elements of type [{}]",
+					lazy(value), typeName(collectionType), typeName(elementType));
+		}
+		CollectionUtil collectionUtil = collectionUtil();
+		if (lazy && value != null) {
+			List<?> source = lazySource(collectionUtil, value, elementType);
+			if (source != null) {
+				ConvertingCollections.ConvertingList<?> list =
+						new ConvertingCollections.ConvertingList<>(source, elementType, collectionType, this);
+				return Set.class.isAssignableFrom(collectionType) ? new ConvertingCollections.ConvertingSet<>(list)
+						: list;
+			}
+		}
 		Collection elements = collectionUtil.newCollection(collectionType);
 		if (value == null) {
 			// If the given value is null, the conversion result
 			// will be an empty collection.
 			return elements;
 		}
-		log.debug("Created new Collection instance of class: {}", classFor(elements).getSimpleName());
+		boolean debug = TRACE && log.isDebugEnabled();
+		if (debug) {
+			log.debug("Created new Collection instance of class: {}", typeName(elements));
+		}
 		if (collectionUtil.isRawCollection(value)) {
-			log.debug("This is array of raw collection of values from a Collection subtype: {}", value);
-			Collection<?> allConverted = convertAll(elementType, (Collection) value);
-			log.debug("All elements converted with size({}): {}", allConverted.size(), allConverted);
-			elements.addAll(allConverted);
+			if (debug) {
+				log.debug("This is array of raw collection of values from a Collection subtype: {}", lazy(value));
+			}
+			convertAll(elementType, (Collection) value, elements);
 		} else if (collectionUtil.isArrayCollection(value)) {
-			log.debug("This is a Java Array of elements...");
-			Collection asList = asList(value);
-			log.debug("Created list from the array: {}", asList);
-			elements.addAll(convertAll(elementType, asList));
+			convertAll(elementType, asList(value), elements);
 		} else if (Object.class.equals(elementType)) {
-			log.debug("Trying to convert to an Object.class. Transforming to the real class");
-			elementType = value.getClass();
-			log.debug("New element type: {}", elementType);
-			Object converted = convert(elementType, value);
-			log.debug("Converted: {}", converted);
-			elements.add(converted);
+			// Converting to Object.class. Using the real class of the value
+			elements.add(convert(value.getClass(), value));
 		} else if (collectionUtil.isStringCommaSeparatedArray(value)) {
-			log.debug("This is a String Comma Separated Array: {}", value);
-			Collection stringArrayAsTypeCollection = stringArrayToCollection(
-					value.toString(), collectionType, elementType);
-			log.debug("The stirng list was converted to: {}", stringArrayAsTypeCollection);
-			elements.addAll(stringArrayAsTypeCollection);
+			if (debug) {
+				log.debug("This is a String Comma Separated Array: {}", lazy(value));
+			}
+			stringArrayToCollection(CollectionUtil.asCharSequence(value), elementType, elements);
 		} else {
-			// & Number.class.isAssignableFrom(elementType) & NumberUtils.isCreatable(value.toString())) {
-			log.debug("The value is a single element convertible to a Number!");
-			Object converted = convert(elementType, value);
-			log.debug("Converted: {}", converted);
-			elements.add(converted);
+			// A single element
+			elements.add(convert(elementType, value));
+		}
+		if (debug) {
+			log.debug("All elements converted with size({}): {}", elements.size(), lazy(elements));
 		}
 		return elements;
 	}
 
+	/**
+	 * Returns a random access list of the raw elements of the value, or null if
+	 * it is a single value.
+	 */
+	private List<?> lazySource(CollectionUtil collectionUtil, Object value, Class<?> elementType) {
+		if (collectionUtil.isRawCollection(value)) {
+			if (value instanceof List && value instanceof RandomAccess) {
+				return (List<?>) value;
+			}
+			return new ArrayList<>((Collection<?>) value);
+		}
+		if (collectionUtil.isArrayCollection(value)) {
+			return asList(value);
+		}
+		if (!Object.class.equals(elementType) && collectionUtil.isStringCommaSeparatedArray(value)) {
+			return CommaSeparatedTokenizer.tokens(CollectionUtil.asCharSequence(value));
+		}
+		return null;
+	}
 }
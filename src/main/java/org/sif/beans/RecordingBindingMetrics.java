@@ -0,0 +1,148 @@
+package org.sif.beans;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link BindingMetrics} recorded in memory, read through
+ * {@link #snapshot()}.
+ * <p>
+ * The counters are {@link LongAdder}s and the latencies are kept in
+ * {@link LatencyHistogram}s, overall and per bean class and property. Once
+ * the counters of a class, property, type or cache exist, recording into them
+ * neither locks nor allocates. The number of properties tracked per class is
+ * bounded by {@link #MAX_PROPERTIES_PER_CLASS}; the latency of the properties
+ * beyond it is only counted in the class totals.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public class RecordingBindingMetrics implements BindingMetrics {
+
+	/**
+	 * Maximum number of properties whose latency is tracked per bean class
+	 */
+	static final int MAX_PROPERTIES_PER_CLASS = 1024;
+
+	private final LongSupplier ticker;
+
+	private final long startTime;
+
+	private final LongAdder binds = new LongAdder();
+
+	private final LongAdder properties = new LongAdder();
+
+	private final LatencyHistogram bindLatency = new LatencyHistogram();
+
+	private final LatencyHistogram propertiesPerBind = new LatencyHistogram();
+
+	private final ConcurrentMap<Class<?>, ClassMetrics> classes = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Class<?>, LongAdder> conversionFailures = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, CacheCounters> caches = new ConcurrentHashMap<>();
+
+	public RecordingBindingMetrics() {
+		this(System::nanoTime);
+	}
+
+	RecordingBindingMetrics(LongSupplier ticker) {
+		this.ticker = ticker;
+		this.startTime = ticker.getAsLong();
+	}
+
+	@Override
+	public void recordBind(Class<?> beanClass, int properties, long nanos) {
+		binds.increment();
+		this.properties.add(properties);
+		bindLatency.record(nanos);
+		propertiesPerBind.record(properties);
+		classMetrics(beanClass).bindLatency.record(nanos);
+	}
+
+	@Override
+	public void recordProperty(Class<?> beanClass, String property, long nanos) {
+		ClassMetrics metrics = classMetrics(beanClass);
+		LatencyHistogram histogram = metrics.properties.get(property);
+		if (histogram == null) {
+			if (metrics.properties.size() >= MAX_PROPERTIES_PER_CLASS) {
+				return;
+			}
+			histogram = metrics.properties.computeIfAbsent(property, p -> new LatencyHistogram());
+		}
+		histogram.record(nanos);
+	}
+
+	@Override
+	public void recordConversionFailure(Class<?> targetType) {
+		LongAdder failures = conversionFailures.get(targetType);
+		if (failures == null) {
+			failures = conversionFailures.computeIfAbsent(targetType, t -> new LongAdder());
+		}
+		failures.increment();
+	}
+
+	@Override
+	public void recordCacheLookup(String cache, boolean hit) {
+		CacheCounters counters = caches.get(cache);
+		if (counters == null) {
+			counters = caches.computeIfAbsent(cache, c -> new CacheCounters());
+		}
+		(hit ? counters.hits : counters.misses).increment();
+	}
+
+	private ClassMetrics classMetrics(Class<?> beanClass) {
+		ClassMetrics metrics = classes.get(beanClass);
+		if (metrics == null) {
+			metrics = classes.computeIfAbsent(beanClass, c -> new ClassMetrics());
+		}
+		return metrics;
+	}
+
+	/**
+	 * Returns a copy of the current measures. The counters keep running, so
+	 * the measures of an interval are the difference of two snapshots.
+	 */
+	public BindingMetricsSnapshot snapshot() {
+		Map<Class<?>, BindingMetricsSnapshot.Histogram> classLatencies = new HashMap<>();
+		Map<Class<?>, Map<String, BindingMetricsSnapshot.Histogram>> propertyLatencies = new HashMap<>();
+		for (Map.Entry<Class<?>, ClassMetrics> entry : classes.entrySet()) {
+			classLatencies.put(entry.getKey(), entry.getValue().bindLatency.snapshot());
+			Map<String, BindingMetricsSnapshot.Histogram> latencies = new HashMap<>();
+			for (Map.Entry<String, LatencyHistogram> property : entry.getValue().properties.entrySet()) {
+				latencies.put(property.getKey(), property.getValue().snapshot());
+			}
+			propertyLatencies.put(entry.getKey(), latencies);
+		}
+		Map<Class<?>, Long> failures = new HashMap<>();
+		for (Map.Entry<Class<?>, LongAdder> entry : conversionFailures.entrySet()) {
+			failures.put(entry.getKey(), entry.getValue().sum());
+		}
+		Map<String, BindingMetricsSnapshot.CacheStats> cacheStats = new HashMap<>();
+		for (Map.Entry<String, CacheCounters> entry : caches.entrySet()) {
+			cacheStats.put(entry.getKey(), new BindingMetricsSnapshot.CacheStats(entry.getValue().hits.sum(),
+					entry.getValue().misses.sum()));
+		}
+		return new BindingMetricsSnapshot(ticker.getAsLong() - startTime, binds.sum(), properties.sum(),
+				bindLatency.snapshot(), propertiesPerBind.snapshot(), classLatencies, propertyLatencies, failures,
+				cacheStats);
+	}
+
+	private static final class ClassMetrics {
+
+		final LatencyHistogram bindLatency = new LatencyHistogram();
+
+		final ConcurrentMap<String, LatencyHistogram> properties = new ConcurrentHashMap<>();
+	}
+
+	private static final class CacheCounters {
+
+		final LongAdder hits = new LongAdder();
+
+		final LongAdder misses = new LongAdder();
+	}
+}
@@ -0,0 +1,378 @@
+package org.sif.beans;
+
+import org.sif.beans.converters.IgnoreConversionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.persistence.Id;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Binds parameters to beans resolving their relations in batches, through an
+ * {@link EntityLoader}.
+ * <p>
+ * The relation properties of all items are bound in three steps: the ids
+ * found in the parameters are collected by entity type, then each entity type
+ * is loaded with a single {@link EntityLoader#loadAll(Class, Collection)}
+ * call, and finally the loaded entities are set on the beans. The loaded
+ * entities are kept in an identity map for the whole batch, so items
+ * referencing the same id share the same entity instance. Collection
+ * relations are updated in place, as {@link CollectionRelationSetter} does:
+ * only the members whose ids left or joined the relation are removed or
+ * added. The other parameters are set by the configured
+ * {@link PropertiesSetter}.
+ * </p>
+ * <p>
+ * A relation property is a field annotated with {@link ManyToOne},
+ * {@link OneToOne}, {@link OneToMany} or {@link ManyToMany} whose target
+ * entity has an {@link Id} field. Properties named in an ignore directive,
+ * dissociations and nested properties are left to the properties setter.
+ * </p>
+ * The binder is thread safe, provided the entity loader and the properties
+ * setter are. Each batch has its own identity map.
+ *
+ * @param <T> the bean type
+ * @param <I> the entities primary key type
+ * @author Carlos Eugenio P. da Purificacao
+ */
+@Named
+public class RelationBatchBinder<T, I> {
+
+	private static final Logger log = LoggerFactory.getLogger(RelationBatchBinder.class);
+
+	/**
+	 * Maximum number of properties whose relation metadata is cached per bean class
+	 */
+	static final int MAX_PROPERTIES_PER_CLASS = 256;
+
+	/**
+	 * Cached for the properties that are not relations
+	 */
+	private static final Object NOT_A_RELATION = new Object();
+
+	private static final ClassValue<ConcurrentMap<String, Object>> RELATIONS =
+			new ClassValue<ConcurrentMap<String, Object>>() {
+				@Override
+				protected ConcurrentMap<String, Object> computeValue(Class<?> type) {
+					return new ConcurrentHashMap<>();
+				}
+			};
+
+	private EntityLoader<I> entityLoader;
+
+	private PropertiesSetter<T> propertiesSetter;
+
+	private PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+
+	/**
+	 * Binds the parameters to a single bean, loading its relations with one
+	 * call per entity type.
+	 *
+	 * @throws IllegalArgumentException if a related entity is not found
+	 */
+	public void setAllProperties(T bean, Map<String, Object> parameters) {
+		BatchBindingResult<T> result = bindAll(Collections.singletonList(BindingItem.of(bean, parameters)));
+		if (result.hasFailures()) {
+			throw result.getFailures().get(0).getCause();
+		}
+	}
+
+	/**
+	 * Binds all items, loading the relations of the whole batch with one call
+	 * per entity type. A failing item is recorded and doesn't stop the others.
+	 *
+	 * @param items the beans and their parameters
+	 * @return the result of the batch
+	 */
+	public BatchBindingResult<T> bindAll(List<BindingItem<T>> items) {
+		EntityLoader<I> loader = entityLoader;
+		PropertiesSetter<T> setter = propertiesSetter;
+		if (loader == null || setter == null) {
+			throw new IllegalArgumentException("The entity loader and the properties setter must be set");
+		}
+		List<BatchBindingResult.Failure<T>> failures = new ArrayList<>();
+		List<PendingItem<T>> pending = new ArrayList<>(items.size());
+		Map<Class<?>, Set<I>> idsByType = new LinkedHashMap<>();
+		int index = 0;
+		for (BindingItem<T> item : items) {
+			try {
+				pending.add(collect(index, item, idsByType));
+			} catch (RuntimeException ex) {
+				log.debug("Could not collect the relation ids of the batch item {}: {}", index, ex.toString());
+				failures.add(new BatchBindingResult.Failure<>(index, item, ex));
+			}
+			index++;
+		}
+		Map<Class<?>, Map<I, ?>> identityMap = new HashMap<>();
+		for (Map.Entry<Class<?>, Set<I>> entry : idsByType.entrySet()) {
+			log.debug("Loading {} entities of [{}]", entry.getValue().size(), entry.getKey());
+			identityMap.put(entry.getKey(), loader.loadAll(entry.getKey(), entry.getValue()));
+		}
+		CollectionUtil<?> collectionUtil = converterUtil.collectionUtil();
+		for (PendingItem<T> item : pending) {
+			try {
+				item.bind(identityMap, setter, collectionUtil);
+			} catch (RuntimeException ex) {
+				log.debug("Could not bind the batch item {}: {}", item.index, ex.toString());
+				failures.add(new BatchBindingResult.Failure<>(item.index, item.item, ex));
+			}
+		}
+		failures.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+		return new BatchBindingResult<>(items.size(), failures);
+	}
+
+	/**
+	 * Splits the parameters of an item into its relations, whose ids are added
+	 * to the ids to load, and the remaining parameters.
+	 */
+	@SuppressWarnings("unchecked")
+	private PendingItem<T> collect(int index, BindingItem<T> item, Map<Class<?>, Set<I>> idsByType) {
+		Map<String, Object> parameters = item.getParameters();
+		Collection<String> ignored = BeanPropertiesSetter.ignoredProperties(parameters);
+		Class<?> beanClass = item.getBean().getClass();
+		PendingItem<T> pending = new PendingItem<>(index, item);
+		for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+			String property = entry.getKey();
+			Relation relation = ignored.contains(property) ? null : relation(beanClass, property);
+			if (relation == null) {
+				pending.parameters.put(property, entry.getValue());
+				continue;
+			}
+			Object value = entry.getValue();
+			Collection<I> ids;
+			try {
+				if (value == null) {
+					ids = Collections.emptyList();
+				} else if (relation.collection) {
+					ids = (Collection<I>) converterUtil.valueListToCollection(value, List.class, relation.idType);
+				} else {
+					ids = Collections.singletonList((I) converterUtil.convert(relation.idType, value));
+				}
+			} catch (IgnoreConversionException ex) {
+				// Empty values leave the relation untouched
+				continue;
+			}
+			Set<I> typeIds = idsByType.computeIfAbsent(relation.targetType, t -> new LinkedHashSet<>());
+			for (I id : ids) {
+				if (id != null) {
+					typeIds.add(id);
+				}
+			}
+			pending.relations.put(relation, ids);
+		}
+		return pending;
+	}
+
+	/**
+	 * Returns the relation metadata of the given property, or null if it is
+	 * not a relation resolved by this binder.
+	 */
+	static Relation relation(Class<?> beanClass, String property) {
+		if (property.startsWith(BeanPropertiesSetter.DISSOCIATE_PREFIX) || Classes.isNested(property)) {
+			return null;
+		}
+		ConcurrentMap<String, Object> relations = RELATIONS.get(beanClass);
+		Object relation = relations.get(property);
+		if (relation == null) {
+			relation = resolveRelation(beanClass, property);
+			if (relations.size() < MAX_PROPERTIES_PER_CLASS) {
+				relations.putIfAbsent(property, relation);
+			}
+		}
+		return relation == NOT_A_RELATION ? null : (Relation) relation;
+	}
+
+	private static Object resolveRelation(Class<?> beanClass, String property) {
+		FieldMetadata metadata = FieldMetadata.of(beanClass);
+		Field field = metadata.findField(property);
+		if (field == null) {
+			return NOT_A_RELATION;
+		}
+		AnnotationIndex.FieldAnnotations annotations = AnnotationIndex.forField(field);
+		if (annotations == null || !annotations.hasAny(AnnotationIndex.RELATIONS)) {
+			return NOT_A_RELATION;
+		}
+		PropertyAccessor accessor = BeanIntrospection.forClass(beanClass).getAccessor(property);
+		if (accessor == null || !accessor.isWritable()) {
+			return NOT_A_RELATION;
+		}
+		boolean collection = Collection.class.isAssignableFrom(field.getType());
+		Class<?> targetType = targetEntity(annotations);
+		if (targetType == null) {
+			targetType = collection ? metadata.getElementType(property) : field.getType();
+		}
+		if (targetType == null) {
+			log.debug("The target entity of the relation [{}] of [{}] is unknown", property, beanClass);
+			return NOT_A_RELATION;
+		}
+		List<Field> idFields = AnnotationUtil.getFieldsWithAnnotation(targetType, Id.class);
+		if (idFields.isEmpty()) {
+			log.debug("The target entity [{}] of the relation [{}] has no id", targetType, property);
+			return NOT_A_RELATION;
+		}
+		Field idField = idFields.get(0);
+		PropertyAccessor idAccessor = BeanIntrospection.forClass(targetType).getAccessor(idField.getName());
+		return new Relation(accessor, collection, targetType, idField.getType(),
+				idAccessor != null && idAccessor.isReadable() ? idAccessor : null);
+	}
+
+	/**
+	 * Returns the target entity declared in the relation annotation, or null
+	 */
+	private static Class<?> targetEntity(AnnotationIndex.FieldAnnotations annotations) {
+		Class<?> target = void.class;
+		if (annotations.has(ManyToOne.class)) {
+			target = annotations.get(ManyToOne.class).targetEntity();
+		} else if (annotations.has(OneToOne.class)) {
+			target = annotations.get(OneToOne.class).targetEntity();
+		} else if (annotations.has(OneToMany.class)) {
+			target = annotations.get(OneToMany.class).targetEntity();
+		} else if (annotations.has(ManyToMany.class)) {
+			target = annotations.get(ManyToMany.class).targetEntity();
+		}
+		return target == void.class ? null : target;
+	}
+
+	public EntityLoader<I> getEntityLoader() {
+		return entityLoader;
+	}
+
+	@Inject
+	public void setEntityLoader(EntityLoader<I> entityLoader) {
+		this.entityLoader = entityLoader;
+	}
+
+	public PropertiesSetter<T> getPropertiesSetter() {
+		return propertiesSetter;
+	}
+
+	/**
+	 * Sets the properties setter of the parameters that are not relations
+	 */
+	@Inject
+	public void setPropertiesSetter(BeanPropertiesSetter<T, I> propertiesSetter) {
+		this.propertiesSetter = propertiesSetter;
+	}
+
+	/**
+	 * Sets the converter of the relation ids. By default a new one is used.
+	 */
+	@Inject
+	public void setConverterUtil(PropertyValueConverterUtil<?> converterUtil) {
+		this.converterUtil = converterUtil;
+	}
+
+	/**
+	 * The metadata of a relation property
+	 */
+	static final class Relation {
+
+		final PropertyAccessor accessor;
+
+		final boolean collection;
+
+		final Class<?> targetType;
+
+		final Class<?> idType;
+
+		/**
+		 * Reads the id of the target entities, or null if it is not readable
+		 */
+		final PropertyAccessor idAccessor;
+
+		Relation(PropertyAccessor accessor, boolean collection, Class<?> targetType, Class<?> idType,
+				PropertyAccessor idAccessor) {
+			this.accessor = accessor;
+			this.collection = collection;
+			this.targetType = targetType;
+			this.idType = idType;
+			this.idAccessor = idAccessor;
+		}
+	}
+
+	/**
+	 * An item whose relation ids were collected and wait for the entities to
+	 * be loaded
+	 */
+	private static final class PendingItem<T> {
+
+		final int index;
+
+		final BindingItem<T> item;
+
+		final Map<Relation, Collection<?>> relations = new LinkedHashMap<>();
+
+		final Map<String, Object> parameters = new LinkedHashMap<>();
+
+		PendingItem(int index, BindingItem<T> item) {
+			this.index = index;
+			this.item = item;
+		}
+
+		@SuppressWarnings("unchecked")
+		void bind(Map<Class<?>, ? extends Map<?, ?>> identityMap, PropertiesSetter<T> setter,
+				CollectionUtil<?> collectionUtil) {
+			T bean = item.getBean();
+			for (Map.Entry<Relation, Collection<?>> entry : relations.entrySet()) {
+				Relation relation = entry.getKey();
+				Map<?, ?> entities = identityMap.get(relation.targetType);
+				if (relation.collection && relation.idAccessor != null && relation.accessor.isReadable()) {
+					CollectionRelationSetter.setMembers(bean, relation, entry.getValue(),
+							added -> entities(entities, relation, added), collectionUtil);
+				} else if (relation.collection) {
+					// The members can't be told apart by id, so the collection is replaced
+					Collection<Object> values =
+							(Collection<Object>) collectionUtil.newCollection(relation.accessor.getType());
+					values.addAll(entities(entities, relation, entry.getValue()));
+					relation.accessor.set(bean, values);
+				} else {
+					Collection<?> ids = entry.getValue();
+					relation.accessor.set(bean, ids.isEmpty() ? null : entity(entities, relation, ids.iterator().next()));
+				}
+			}
+			if (!parameters.isEmpty()) {
+				setter.setAllProperties(bean, parameters);
+			}
+		}
+
+		/**
+		 * Returns the entities of the given ids, in the same order
+		 */
+		private static List<Object> entities(Map<?, ?> entities, Relation relation, Collection<?> ids) {
+			List<Object> result = new ArrayList<>(ids.size());
+			for (Object id : ids) {
+				result.add(entity(entities, relation, id));
+			}
+			return result;
+		}
+
+		private static Object entity(Map<?, ?> entities, Relation relation, Object id) {
+			if (id == null) {
+				return null;
+			}
+			Object entity = entities == null ? null : entities.get(id);
+			if (entity == null) {
+				throw new IllegalArgumentException("Entity [" + relation.targetType.getName() + "] with id [" + id
+						+ "] not found");
+			}
+			return entity;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package org.sif.beans;
+
+/**
+ * A cache of related entities, keyed by entity class and id, consulted before
+ * the data store when resolving relation properties.
+ * <p>
+ * Implementations must be thread safe. They may evict entries at any time, so
+ * a miss only means the entity must be loaded again.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ * @see CachingEntityLoader
+ */
+public interface RelationCache {
+
+	/**
+	 * Returns the cached entity of the given class and id, or null if it is
+	 * not cached
+	 */
+	<E> E get(Class<E> entityClass, Object id);
+
+	/**
+	 * Caches the entity of the given class and id, replacing the cached one
+	 */
+	<E> void put(Class<E> entityClass, Object id, E entity);
+
+	/**
+	 * Removes the entity of the given class and id from the cache
+	 */
+	void invalidate(Class<?> entityClass, Object id);
+
+	/**
+	 * Removes all entities from the cache
+	 */
+	void invalidateAll();
+
+	/**
+	 * Returns the number of lookups that found a cached entity
+	 */
+	long getHitCount();
+
+	/**
+	 * Returns the number of lookups that found no cached entity
+	 */
+	long getMissCount();
+
+	/**
+	 * Returns the number of entities removed to keep the cache within its
+	 * bounds, including expired and collected ones
+	 */
+	long getEvictionCount();
+}
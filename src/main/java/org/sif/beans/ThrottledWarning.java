@@ -0,0 +1,60 @@
+package org.sif.beans;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A warning logged at most once per interval. The occurrences in between are
+ * only counted, and the count is reported with the next logged (sampled)
+ * occurrence. No stack traces are logged.
+ * <p>
+ * Suppressing an occurrence costs a clock read and a counter increment, so it
+ * is cheap enough for warnings triggered by request payloads.
+ * </p>
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+final class ThrottledWarning {
+
+	private final Logger log;
+
+	private final long intervalNanos;
+
+	private final AtomicLong nextLogTime;
+
+	private final LongAdder suppressed = new LongAdder();
+
+	ThrottledWarning(Logger log, long interval, TimeUnit unit) {
+		this.log = log;
+		this.intervalNanos = unit.toNanos(interval);
+		this.nextLogTime = new AtomicLong(System.nanoTime());
+	}
+
+	/**
+	 * Logs the warning, with two arguments, if the interval since the last
+	 * logged occurrence has elapsed. Otherwise it is just counted.
+	 *
+	 * @return true if the warning was logged
+	 */
+	boolean warn(String format, Object arg1, Object arg2) {
+		if (!log.isWarnEnabled()) {
+			return false;
+		}
+		long now = System.nanoTime();
+		long next = nextLogTime.get();
+		if (now - next < 0 || !nextLogTime.compareAndSet(next, now + intervalNanos)) {
+			suppressed.increment();
+			return false;
+		}
+		long count = suppressed.sumThenReset();
+		if (count > 0) {
+			log.warn(format + " ({} similar warnings suppressed)", arg1, arg2, count);
+		} else {
+			log.warn(format, arg1, arg2);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,360 @@
+package org.sif.beans;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A size bounded {@link RelationCache} with a W-TinyLFU eviction policy.
+ * <p>
+ * New entities enter a small LRU window, one percent of the cache. Entities
+ * leaving the window compete with the least recently used entity of the main
+ * area, and only the one seen more often, as estimated by a
+ * {@link FrequencySketch}, stays. The main area is a segmented LRU: entities
+ * read again while in probation move to the protected segment, which holds up
+ * to eighty percent of it. So reference data read on most binds stays cached,
+ * while a scan of entities read once only goes through the window.
+ * </p>
+ * <p>
+ * Entities can optionally expire a fixed time after being cached, and be held
+ * through {@link SoftReference}s, so the garbage collector can reclaim them
+ * under heap pressure. Expired and collected entities are removed when read
+ * and counted as evictions.
+ * </p>
+ * The cache is thread safe. The accesses are serialized by a single lock, as
+ * each read reorders the LRU queues; the counters are read with no locking.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+public class TinyLfuRelationCache implements RelationCache {
+
+	static final int MAX_SIZE = 1 << 30;
+
+	private final int maximumSize;
+
+	private final int windowMaximum;
+
+	private final int protectedMaximum;
+
+	private final long expireAfterWriteNanos;
+
+	private final boolean softValues;
+
+	private final LongSupplier ticker;
+
+	private final Map<Key, Node> data = new HashMap<>();
+
+	private final FrequencySketch sketch;
+
+	private final Queue window = new Queue();
+
+	private final Queue probation = new Queue();
+
+	private final Queue protectedQueue = new Queue();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a cache holding up to the given number of entities, with no
+	 * expiry and strong references
+	 */
+	public TinyLfuRelationCache(int maximumSize) {
+		this(maximumSize, 0L, TimeUnit.NANOSECONDS, false);
+	}
+
+	/**
+	 * Creates a cache holding up to the given number of entities.
+	 *
+	 * @param maximumSize      the maximum number of cached entities
+	 * @param expireAfterWrite how long an entity stays cached. Zero for no expiry
+	 * @param unit             the unit of the expiry
+	 * @param softValues       whether the entities are softly referenced
+	 * @throws IllegalArgumentException if the size is not positive or the expiry is negative
+	 */
+	public TinyLfuRelationCache(int maximumSize, long expireAfterWrite, TimeUnit unit, boolean softValues) {
+		this(maximumSize, unit.toNanos(expireAfterWrite), softValues, System::nanoTime);
+	}
+
+	TinyLfuRelationCache(int maximumSize, long expireAfterWriteNanos, boolean softValues, LongSupplier ticker) {
+		if (maximumSize <= 0 || maximumSize > MAX_SIZE) {
+			throw new IllegalArgumentException("The cache size must be between 1 and " + MAX_SIZE + ": "
+					+ maximumSize);
+		}
+		if (expireAfterWriteNanos < 0) {
+			throw new IllegalArgumentException("The expiry can't be negative: " + expireAfterWriteNanos);
+		}
+		this.maximumSize = maximumSize;
+		this.windowMaximum = Math.max(1, maximumSize / 100);
+		this.protectedMaximum = (int) ((maximumSize - windowMaximum) * 80L / 100);
+		this.expireAfterWriteNanos = expireAfterWriteNanos;
+		this.softValues = softValues;
+		this.ticker = ticker;
+		this.sketch = new FrequencySketch(maximumSize);
+	}
+
+	@Override
+	public <E> E get(Class<E> entityClass, Object id) {
+		Key key = new Key(entityClass, id);
+		Object value = null;
+		synchronized (this) {
+			sketch.increment(key);
+			Node node = data.get(key);
+			if (node != null) {
+				value = node.value();
+				if (value == null || isExpired(node)) {
+					remove(node);
+					evictions.increment();
+					value = null;
+				} else {
+					onAccess(node);
+				}
+			}
+		}
+		if (value == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entityClass.cast(value);
+	}
+
+	@Override
+	public <E> void put(Class<E> entityClass, Object id, E entity) {
+		if (entity == null) {
+			invalidate(entityClass, id);
+			return;
+		}
+		Key key = new Key(entityClass, id);
+		Object value = softValues ? new SoftReference<>(entity) : entity;
+		synchronized (this) {
+			Node node = data.get(key);
+			if (node != null) {
+				node.value = value;
+				node.writeTime = ticker.getAsLong();
+				onAccess(node);
+				return;
+			}
+			node = new Node(key, value, ticker.getAsLong());
+			data.put(key, node);
+			window.addLast(node);
+			evict();
+		}
+	}
+
+	@Override
+	public synchronized void invalidate(Class<?> entityClass, Object id) {
+		Node node = data.get(new Key(entityClass, id));
+		if (node != null) {
+			remove(node);
+		}
+	}
+
+	@Override
+	public synchronized void invalidateAll() {
+		data.clear();
+		window.clear();
+		probation.clear();
+		protectedQueue.clear();
+	}
+
+	/**
+	 * Returns the number of cached entities, including the expired and
+	 * collected ones not removed yet
+	 */
+	public synchronized int size() {
+		return data.size();
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	@Override
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	private boolean isExpired(Node node) {
+		return expireAfterWriteNanos > 0 && ticker.getAsLong() - node.writeTime >= expireAfterWriteNanos;
+	}
+
+	/**
+	 * Moves the node to the most recently used position of its queue,
+	 * promoting it from probation to the protected segment
+	 */
+	private void onAccess(Node node) {
+		if (node.queue == probation) {
+			probation.remove(node);
+			protectedQueue.addLast(node);
+			if (protectedQueue.size > protectedMaximum) {
+				Node demoted = protectedQueue.first();
+				protectedQueue.remove(demoted);
+				probation.addLast(demoted);
+			}
+		} else {
+			node.queue.moveToLast(node);
+		}
+	}
+
+	/**
+	 * Moves the window overflow to probation, where it is admitted only if it
+	 * was seen more often than the main area victim
+	 */
+	private void evict() {
+		while (window.size > windowMaximum) {
+			Node candidate = window.first();
+			window.remove(candidate);
+			probation.addLast(candidate);
+			if (data.size() <= maximumSize) {
+				continue;
+			}
+			Node victim = probation.first() != candidate ? probation.first() : protectedQueue.first();
+			if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+				victim = candidate;
+			}
+			remove(victim);
+			evictions.increment();
+		}
+	}
+
+	private void remove(Node node) {
+		node.queue.remove(node);
+		data.remove(node.key);
+	}
+
+	/**
+	 * The cache key: the entity class and id
+	 */
+	private static final class Key {
+
+		private final Class<?> entityClass;
+
+		private final Object id;
+
+		Key(Class<?> entityClass, Object id) {
+			if (entityClass == null || id == null) {
+				throw new IllegalArgumentException("The entity class and id of a cached entity can't be null");
+			}
+			this.entityClass = entityClass;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return entityClass == other.entityClass && id.equals(other.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * entityClass.hashCode() + id.hashCode();
+		}
+	}
+
+	private static final class Node {
+
+		final Key key;
+
+		Object value;
+
+		long writeTime;
+
+		Queue queue;
+
+		Node previous;
+
+		Node next;
+
+		Node(Key key, Object value, long writeTime) {
+			this.key = key;
+			this.value = value;
+			this.writeTime = writeTime;
+		}
+
+		/**
+		 * Returns the entity, or null if it was softly referenced and collected
+		 */
+		Object value() {
+			return value instanceof SoftReference ? ((SoftReference<?>) value).get() : value;
+		}
+	}
+
+	/**
+	 * A LRU queue linking the nodes directly, least recently used first
+	 */
+	private static final class Queue {
+
+		Node head;
+
+		Node tail;
+
+		int size;
+
+		Node first() {
+			return head;
+		}
+
+		void addLast(Node node) {
+			node.queue = this;
+			node.previous = tail;
+			node.next = null;
+			if (tail == null) {
+				head = node;
+			} else {
+				tail.next = node;
+			}
+			tail = node;
+			size++;
+		}
+
+		void remove(Node node) {
+			if (node.previous == null) {
+				head = node.next;
+			} else {
+				node.previous.next = node.next;
+			}
+			if (node.next == null) {
+				tail = node.previous;
+			} else {
+				node.next.previous = node.previous;
+			}
+			node.previous = null;
+			node.next = null;
+			node.queue = null;
+			size--;
+		}
+
+		void moveToLast(Node node) {
+			if (node != tail) {
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		void clear() {
+			head = null;
+			tail = null;
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package org.sif.beans.processor;
+
+import org.sif.beans.GeneratedPropertiesSetter;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates, for each public top level
+ * {@link javax.persistence.Entity} class, a {@link GeneratedPropertiesSetter}
+ * named after the entity with the {@link GeneratedPropertiesSetter#SUFFIX}
+ * suffix, in the same package.
+ * <p>
+ * The generated setter handles the simple properties of the entity: fields
+ * with a public getter and setter, whose type has a converter and which are
+ * not JPA relations. Everything else is left to the reflective setters.
+ * </p>
+ * To use it, add this library to the annotation processor path of the project
+ * declaring the entities.
+ *
+ * @author Carlos Eugenio P. da Purificacao
+ */
+@SupportedAnnotationTypes(PropertiesSetterProcessor.ENTITY)
+public class PropertiesSetterProcessor extends AbstractProcessor {
+
+	static final String ENTITY = "javax.persistence.Entity";
+
+	private static final Set<String> RELATIONS = new HashSet<>(Arrays.asList(
+			"javax.persistence.ManyToOne",
+			"javax.persistence.OneToMany",
+			"javax.persistence.ManyToMany",
+			"javax.persistence.OneToOne"));
+
+	/**
+	 * The declared types the default converters can produce
+	 */
+	private static final Set<String> SUPPORTED_TYPES = new HashSet<>(Arrays.asList(
+			"java.lang.Boolean", "java.lang.Byte", "java.lang.Short", "java.lang.Integer",
+			"java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Character",
+			"java.lang.String", "java.math.BigDecimal", "java.math.BigInteger",
+			"java.util.Date", "java.sql.Date", "java.sql.Timestamp"));
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (TypeElement entity : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+				if (!isSupportedEntity(entity)) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+							"Skipping properties setter generation for non public, nested or abstract entity", entity);
+					continue;
+				}
+				try {
+					generate(entity, collectProperties(entity));
+				} catch (IOException ex) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+							"Could not generate the properties setter: " + ex, entity);
+				}
+			}
+		}
+		// Other processors may also be interested in @Entity
+		return false;
+	}
+
+	private boolean isSupportedEntity(TypeElement entity) {
+		return entity.getKind() == ElementKind.CLASS
+				&& entity.getModifiers().contains(Modifier.PUBLIC)
+				&& !entity.getModifiers().contains(Modifier.ABSTRACT)
+				&& entity.getEnclosingElement().getKind() == ElementKind.PACKAGE
+				&& entity.getTypeParameters().isEmpty();
+	}
+
+	/**
+	 * Returns the simple properties of the entity, by name, with the name of
+	 * their setter and their type.
+	 */
+	private Map<String, Property> collectProperties(TypeElement entity) {
+		Map<String, Property> properties = new LinkedHashMap<>();
+		Set<ExecutableElement> methods = new HashSet<>(
+				ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity)));
+		TypeElement current = entity;
+		while (current != null && !Object.class.getName().equals(current.getQualifiedName().toString())) {
+			for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				String name = field.getSimpleName().toString();
+				if (properties.containsKey(name) || field.getModifiers().contains(Modifier.STATIC)
+						|| isRelation(field) || !isSupportedType(field.asType())) {
+					continue;
+				}
+				ExecutableElement setter = findSetter(methods, name, field.asType());
+				if (setter != null && findGetter(methods, name, field.asType()) != null) {
+					properties.put(name, new Property(name, setter.getSimpleName().toString(), field.asType()));
+				}
+			}
+			TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED
+					? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+		}
+		return properties;
+	}
+
+	private boolean isRelation(Element field) {
+		for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+			TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+			if (RELATIONS.contains(type.getQualifiedName().toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isSupportedType(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return true;
+		}
+		return type.getKind() == TypeKind.DECLARED
+				&& SUPPORTED_TYPES.contains(((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName()
+				.toString());
+	}
+
+	private ExecutableElement findSetter(Set<ExecutableElement> methods, String property, TypeMirror type) {
+		String name = "set" + capitalize(property);
+		for (ExecutableElement method : methods) {
+			if (isPublicInstanceMethod(method) && method.getSimpleName().contentEquals(name)
+					&& method.getParameters().size() == 1
+					&& processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), type)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private ExecutableElement findGetter(Set<ExecutableElement> methods, String property, TypeMirror type) {
+		String getName = "get" + capitalize(property);
+		String isName = "is" + capitalize(property);
+		for (ExecutableElement method : methods) {
+			if (isPublicInstanceMethod(method) && method.getParameters().isEmpty()
+					&& (method.getSimpleName().contentEquals(getName)
+					|| (type.getKind() == TypeKind.BOOLEAN && method.getSimpleName().contentEquals(isName)))
+					&& processingEnv.getTypeUtils().isSameType(method.getReturnType(), type)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private boolean isPublicInstanceMethod(ExecutableElement method) {
+		return method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC);
+	}
+
+	private void generate(TypeElement entity, Map<String, Property> properties) throws IOException {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(entity);
+		String entityName = entity.getSimpleName().toString();
+		String setterName = entityName + GeneratedPropertiesSetter.SUFFIX;
+		String qualifiedName = pkg.isUnnamed() ? setterName : pkg.getQualifiedName() + "." + setterName;
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, entity);
+		try (PrintWriter out = new PrintWriter(file.openWriter())) {
+			if (!pkg.isUnnamed()) {
+				out.println("package " + pkg.getQualifiedName() + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Sets the simple properties of {@link " + entityName + "} directly.");
+			out.println(" * Generated by {@link " + getClass().getName() + "}. Do not edit.");
+			out.println(" */");
+			out.println("public final class " + setterName + " extends "
+					+ GeneratedPropertiesSetter.class.getName() + "<" + entityName + "> {");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic Class<" + entityName + "> getBeanClass() {");
+			out.println("\t\treturn " + entityName + ".class;");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic boolean handles(String property) {");
+			out.println("\t\tswitch (property) {");
+			for (String name : properties.keySet()) {
+				out.println("\t\t\tcase \"" + name + "\":");
+			}
+			if (!properties.isEmpty()) {
+				out.println("\t\t\t\treturn true;");
+			}
+			out.println("\t\t\tdefault:");
+			out.println("\t\t\t\treturn false;");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tprotected void setProperty(" + entityName + " bean, String property, Object value) {");
+			out.println("\t\tswitch (property) {");
+			for (Property property : properties.values()) {
+				out.println("\t\t\tcase \"" + property.name + "\":");
+				out.println("\t\t\t\tbean." + property.setter + "(" + conversion(property.type) + ");");
+				out.println("\t\t\t\tbreak;");
+			}
+			out.println("\t\t\tdefault:");
+			out.println("\t\t\t\tthrow new IllegalArgumentException(\"Property [\" + property + \"] is not handled by \"");
+			out.println("\t\t\t\t\t\t+ getClass().getName());");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println("}");
+		}
+	}
+
+	/**
+	 * Returns the expression converting the "value" variable to the given type.
+	 * The int, long and double properties are converted with no boxing.
+	 */
+	private String conversion(TypeMirror type) {
+		switch (type.getKind()) {
+			case INT:
+				return "convertToInt(value)";
+			case LONG:
+				return "convertToLong(value)";
+			case DOUBLE:
+				return "convertToDouble(value)";
+			default:
+				break;
+		}
+		if (type.getKind().isPrimitive()) {
+			String boxedName = processingEnv.getTypeUtils().boxedClass((PrimitiveType) type)
+					.getQualifiedName().toString();
+			return "(" + boxedName + ") convert(" + type.getKind().name().toLowerCase() + ".class, value)";
+		}
+		String typeName = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+		return "(" + typeName + ") convert(" + typeName + ".class, value)";
+	}
+
+	private static String capitalize(String name) {
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static final class Property {
+
+		final String name;
+
+		final String setter;
+
+		final TypeMirror type;
+
+		Property(String name, String setter, TypeMirror type) {
+			this.name = name;
+			this.setter = setter;
+			this.type = type;
+		}
+	}
+}
@@ -22,6 +22,11 @@ public class Address implements Serializable {
 			unique=false)
 	private String name;
 
+	private int number;
+
+	private long zipCode;
+
+	private double latitude;
 
 	public Long getId() {
 		return id;
@@ -30,4 +35,28 @@ public class Address implements Serializable {
 	public void setId(Long id) {
 		this.id = id;
 	}
+
+	public int getNumber() {
+		return number;
+	}
+
+	public void setNumber(int number) {
+		this.number = number;
+	}
+
+	public long getZipCode() {
+		return zipCode;
+	}
+
+	public void setZipCode(long zipCode) {
+		this.zipCode = zipCode;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public void setLatitude(double latitude) {
+		this.latitude = latitude;
+	}
 }
@@ -0,0 +1,143 @@
+package org.sif.beans;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the bytes allocated per operation on the binding hot paths, once
+ * they are warm, against a budget. Each budget is about twice what the path
+ * allocates, and the lookups of the cached field metadata and the nested
+ * reads ending on a null bean must not allocate, so per call instantiation of
+ * the converters or eager debug messages make it fail. The debug log of the
+ * library is turned off while measuring, as it is in production.
+ * <p>
+ * The tests are skipped if the JVM can't count the allocated bytes per thread.
+ * </p>
+ */
+public class AllocationBudgetTest {
+
+	private static final int WARMUP = 20_000;
+
+	private static final int OPERATIONS = 10_000;
+
+	private static com.sun.management.ThreadMXBean threads;
+
+	private static Level level;
+
+	@BeforeClass
+	public static void setupClass() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		level = LogManager.getLogger("org.sif").getLevel();
+		Configurator.setLevel("org.sif", Level.INFO);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		if (level != null) {
+			Configurator.setLevel("org.sif", level);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void setAllProperties() {
+		BeanPropertiesSetter setter = new BeanPropertiesSetter();
+		BeanPropertySetterFactory factory = new BeanPropertySetterFactory();
+		factory.setSimplePropertySetter(new SimplePropertySetter());
+		setter.setFactory(factory);
+		setter.setUseGeneratedSetters(true);
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("id", "1");
+		properties.put("name", "Test");
+		properties.put("age", "30");
+		properties.put("employed", "true");
+		Employee bean = new Employee();
+		assertBudget("setAllProperties", 512, () -> setter.setAllProperties(bean, properties));
+	}
+
+	@Test
+	public void convert() {
+		PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+		assertBudget("convert", 64, () -> converterUtil.convert(Long.class, "123456"));
+	}
+
+	@Test
+	public void convertProperty() {
+		PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+		assertBudget("convert property", 64, () -> converterUtil.convert(Employee.class, "age", "30"));
+	}
+
+	@Test
+	public void getField() {
+		assertBudget("getField", 16, () -> AnnotationUtil.getField(Employee.class, "department.name"));
+	}
+
+	@Test
+	public void fieldHasRelationAnnotation() {
+		assertBudget("fieldHasRelationAnnotation", 16, () -> {
+			try {
+				AnnotationUtil.fieldHasRelationAnnotation(Employee.class, "department");
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+	}
+
+	@Test
+	public void getPropertyIgnoreNull() {
+		Employee employee = new Employee();
+		assertBudget("getPropertyIgnoreNull", 16,
+				() -> Classes.getPropertyIgnoreNull(employee, "department.coordinator.name"));
+		assertBudget("readProperty", 16, () -> Classes.readProperty(employee, "department.coordinator.name"));
+	}
+
+	@Test
+	public void valueListToCollection() {
+		PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+		String value = "1, 2, 3, 4, 5, 6, 7, 8, 9, 10";
+		assertBudget("valueListToCollection", 2048,
+				() -> converterUtil.valueListToCollection(value, List.class, Long.class));
+	}
+
+	@Test
+	public void longArrayToCollection() {
+		PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+		long[] value = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L};
+		assertBudget("long array valueListToCollection", 1024,
+				() -> converterUtil.valueListToCollection(value, List.class, Long.class));
+	}
+
+	/**
+	 * Runs the operation until it is warm, then asserts the mean bytes it
+	 * allocates are within the budget
+	 */
+	private static void assertBudget(String operation, long budget, Runnable runnable) {
+		for (int i = 0; i < WARMUP; i++) {
+			runnable.run();
+		}
+		long thread = Thread.currentThread().getId();
+		long start = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < OPERATIONS; i++) {
+			runnable.run();
+		}
+		long perOperation = (threads.getThreadAllocatedBytes(thread) - start) / OPERATIONS;
+		assertTrue(operation + " allocated " + perOperation + " bytes per operation, over the budget of " + budget,
+				perOperation <= budget);
+	}
+}
@@ -2,10 +2,16 @@ package org.sif.beans;
 
 import org.junit.Test;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.Version;
 import java.lang.reflect.AnnotatedElement;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -42,11 +48,42 @@ public class AnnotationUtilTest {
 		assertNotNull(AnnotationUtil.getField(Employee.class, "departments.name"));
 	}
 
+	@Test
+	public void testGetFieldIsCached() {
+		assertSame(AnnotationUtil.getField(Employee.class, "departments.name"),
+				AnnotationUtil.getField(Employee.class, "departments.name"));
+		assertEquals(Department.class, AnnotationUtil.getField(Employee.class, "departments.name").getDeclaringClass());
+	}
+
+	@Test
+	public void testGetTypeParameterClassForCollectionField() {
+		assertEquals(Department.class, AnnotationUtil.getTypeParameterClassForCollectionField(Employee.class, "departments"));
+		assertEquals(Employee.class,
+				AnnotationUtil.getTypeParameterClassForCollectionField(Employee.class, "departments.employeelist"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonExistingNestedField() {
+		AnnotationUtil.getField(Employee.class, "departments.error");
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testNonExistingField() {
 		AnnotationUtil.getField(Employee.class, "error");
 	}
 
+	@Test
+	public void testTryGetField() {
+		assertTrue(AnnotationUtil.tryGetField(Employee.class, "departments.name").isPresent());
+		assertFalse(AnnotationUtil.tryGetField(Employee.class, "error").isPresent());
+		assertFalse(AnnotationUtil.tryGetField(Employee.class, "departments.error").isPresent());
+		assertFalse(AnnotationUtil.tryGetField(Employee.class, "name.error").isPresent());
+		assertFalse(AnnotationUtil.tryGetField(Employee.class, null).isPresent());
+		assertFalse(AnnotationUtil.tryGetField(null, "name").isPresent());
+		// Known missing fields are still reported the same way
+		assertFalse(AnnotationUtil.tryGetField(Employee.class, "error").isPresent());
+	}
+
 	@Test
 	public void testFieldHasAnnotation() {
 		assertTrue(AnnotationUtil.fieldHasAnnotation(Employee.class, "address", OneToOne.class));
@@ -77,13 +114,59 @@ public class AnnotationUtilTest {
 		assertTrue(AnnotationUtil.fieldHasRelationAnnotation(Department.class, "coordinator"));
 	}
 
+	@Test
+	public void testFieldDoesNotHaveRelationAnnotation() throws Exception {
+		assertFalse(AnnotationUtil.fieldHasRelationAnnotation(Employee.class, "name"));
+		assertFalse(AnnotationUtil.fieldHasRelationAnnotation(Employee.class, "error"));
+	}
+
+	@Test
+	public void testFieldHasRelationAnnotationForNestedField() throws Exception {
+		assertTrue(AnnotationUtil.fieldHasRelationAnnotation(Employee.class, "departments.coordinator"));
+	}
+
+	@Test
+	public void testFieldHasAnyAnnotation() {
+		assertTrue(AnnotationUtil.fieldHasAnyAnnotation(Employee.class, "id", Arrays.asList(Version.class, Id.class)));
+		assertFalse(AnnotationUtil.fieldHasAnyAnnotation(Employee.class, "id", Arrays.asList(Version.class, Lob.class)));
+	}
+
+	@Test
+	public void testGetAnnotationForField() {
+		Column column = (Column) AnnotationUtil.getAnnotationForField(Employee.class, "age", Column.class);
+		assertEquals("age", column.name());
+		assertNull(AnnotationUtil.getAnnotationForField(Employee.class, "age", Lob.class));
+	}
+
 	@Test
 	public void testgetTypeParameterReturnsNullWithoutGenericDeclaration() {
 		assertNull(AnnotationUtil.getTypeParameterClassForCollectionField(Employee.class, "name"));
 	}
 
+	@Test
+	public void testGetTypeParameterForWildcardAndTypeVariableFields() throws Exception {
+		assertEquals(Department.class, AnnotationUtil.getTypeParameterClassForCollectionField(Generic.class, "departments"));
+		assertNull(AnnotationUtil.getTypeParameterClassForCollectionField(Generic.class, "anything"));
+		assertNull(AnnotationUtil.getTypeParameterClassForCollectionField(Generic.class, "items"));
+		assertTrue(AnnotationUtil.fieldHasRelationAnnotation(Generic.class, "departments.coordinator"));
+		assertFalse(AnnotationUtil.fieldHasRelationAnnotation(Generic.class, "items.name"));
+		assertFalse(AnnotationUtil.fieldHasAnnotation(Generic.class, "anything.name", OneToMany.class));
+	}
+
 	@Test
 	public void hasClassLevelAnnotation() {
 		assertTrue(AnnotationUtil.hasClassLevelAnnotation(Employee.class, Entity.class));
 	}
-}
\ No newline at end of file
+
+	public static class Generic<T> {
+
+		@OneToMany
+		private List<? extends Department> departments;
+
+		@OneToMany
+		private List<?> anything;
+
+		@OneToMany
+		private List<T> items;
+	}
+}
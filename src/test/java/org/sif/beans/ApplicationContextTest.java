@@ -0,0 +1,26 @@
+package org.sif.beans;
+
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.junit.Assert.*;
+
+public class ApplicationContextTest {
+
+	@Test
+	public void scannedContextUsesTheApplicationEntityLoader() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean("EntityLoader", InMemoryEntityLoader.class);
+		context.registerBean("SimplePropertySetter", SimplePropertySetter.class);
+		context.register(ApplicationContextTestConfigurer.class);
+		try {
+			context.refresh();
+			EntityLoader<?> loader = context.getBean(EntityLoader.class);
+			assertTrue(loader instanceof InMemoryEntityLoader);
+			assertSame(loader, context.getBean(RelationBatchBinder.class).getEntityLoader());
+			assertSame(loader, context.getBean(CollectionRelationSetter.class).getEntityLoader());
+		} finally {
+			context.close();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package org.sif.beans;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A bean with only indexed and mapped read methods for some properties, as
+ * commons-beanutils supports them
+ */
+public class AttributeBean {
+
+	private final Map<String, String> attributes = new HashMap<>();
+
+	private final String[] names = new String[2];
+
+	private AttributeBean child;
+
+	public String getAttr(String key) {
+		return attributes.get(key);
+	}
+
+	public void setAttr(String key, String value) {
+		attributes.put(key, value);
+	}
+
+	public String getName(int index) {
+		return names[index];
+	}
+
+	public void setName(int index, String name) {
+		names[index] = name;
+	}
+
+	public AttributeBean getChild() {
+		return child;
+	}
+
+	public void setChild(AttributeBean child) {
+		this.child = child;
+	}
+}
@@ -0,0 +1,76 @@
+package org.sif.beans;
+
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+public class BeanIntrospectionTest {
+
+	@Test
+	public void testForClassIsCached() {
+		assertSame(BeanIntrospection.forClass(Employee.class), BeanIntrospection.forClass(Employee.class));
+	}
+
+	@Test
+	public void testPropertyNames() {
+		Collection<String> names = BeanIntrospection.forClass(Employee.class).getPropertyNames();
+		assertTrue(names.contains("name"));
+		assertTrue(names.contains("department"));
+		assertFalse(names.contains("other"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testPropertyNamesAreUnmodifiable() {
+		BeanIntrospection.forClass(Employee.class).getPropertyNames().add("other");
+	}
+
+	@Test
+	public void testGetAndSet() {
+		Employee employee = new Employee();
+		PropertyAccessor accessor = BeanIntrospection.forClass(Employee.class).getAccessor("name");
+		assertEquals(String.class, accessor.getType());
+		accessor.set(employee, "Test");
+		assertEquals("Test", employee.getName());
+		assertEquals("Test", accessor.get(employee));
+	}
+
+	@Test
+	public void testIsReadable() {
+		BeanIntrospection introspection = BeanIntrospection.forClass(Employee.class);
+		assertTrue(introspection.isReadable("name"));
+		assertTrue(introspection.isReadable("class"));
+		assertFalse(introspection.isReadable("other"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetNotWritable() {
+		BeanIntrospection.forClass(Employee.class).getAccessor("class").set(new Employee(), Employee.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetWrongType() {
+		BeanIntrospection.forClass(Employee.class).getAccessor("name").set(new Employee(), 1L);
+	}
+
+	@Test
+	public void testSupports() {
+		assertTrue(BeanIntrospection.supports(new Employee()));
+		assertFalse(BeanIntrospection.supports(new HashMap<>()));
+		assertFalse(BeanIntrospection.supports(null));
+	}
+
+	@Test
+	public void testSetPrimitives() {
+		BeanIntrospection introspection = BeanIntrospection.forClass(Address.class);
+		Address address = new Address();
+		introspection.getAccessor("number").set(address, 10);
+		introspection.getAccessor("zipCode").set(address, 20L);
+		introspection.getAccessor("latitude").set(address, 1.5d);
+		assertEquals(10, address.getNumber());
+		assertEquals(20L, address.getZipCode());
+		assertEquals(1.5d, address.getLatitude(), 0d);
+	}
+}
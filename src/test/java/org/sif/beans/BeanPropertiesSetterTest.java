@@ -1,10 +1,16 @@
 package org.sif.beans;
 
-import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.beanutils.ConversionException;
+import org.apache.commons.beanutils.NestedNullException;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.*;
 
@@ -40,33 +46,160 @@ public class BeanPropertiesSetterTest {
 		assertEquals(null, bean.getDepartment());
 	}
 
+	@Test
+	public void setAllPropertiesReusesPlan() {
+		Employee bean = new Employee();
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("id", 1L);
+		properties.put("name", "Test");
+		setter.setAllProperties(bean, properties);
+		BindingPlan plan = setter.getPlan(bean, properties.keySet());
+		HashMap<String, Object> other = new HashMap<>();
+		other.put("name", "Other");
+		other.put("id", 2L);
+		Employee otherBean = new Employee();
+		assertSame(plan, setter.getPlan(otherBean, other.keySet()));
+		setter.setAllProperties(otherBean, other);
+		assertEquals("Other", otherBean.getName());
+		assertEquals(new Long(2L), otherBean.getId());
+	}
+
+	@Test
+	public void setAllPropertiesNestedIndexedAndMapped() {
+		AttributeBean bean = new AttributeBean();
+		bean.setChild(new AttributeBean());
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("child.attr(color)", "red");
+		properties.put("child.name[1]", "b");
+		setter.setAllProperties(bean, properties);
+		assertEquals("red", bean.getChild().getAttr("color"));
+		assertEquals("b", bean.getChild().getName(1));
+	}
+
+	@Test(expected = NestedNullException.class)
+	public void setAllPropertiesNestedNull() {
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("department.name", "Sales");
+		setter.setAllProperties(new Employee(), properties);
+	}
+
+	@Test
+	public void setAllPropertiesWithIgnore() {
+		Employee bean = new Employee();
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("name", "Test");
+		properties.put("age", 10);
+		properties.put(BeanPropertiesSetter.IGNORE_PROPERTY, "age");
+		setter.setAllProperties(bean, properties);
+		assertEquals("Test", bean.getName());
+		assertNull(bean.getAge());
+		// Same key set, different directive value
+		properties.put(BeanPropertiesSetter.IGNORE_PROPERTY, "name");
+		bean = new Employee();
+		setter.setAllProperties(bean, properties);
+		assertNull(bean.getName());
+		assertEquals(new Integer(10), bean.getAge());
+	}
+
+	@Test
+	public void setAllPropertiesWithMultiValuedIgnore() {
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("id", 1L);
+		properties.put("name", "Test");
+		properties.put("age", 10);
+		properties.put(BeanPropertiesSetter.IGNORE_PROPERTY, "age, name");
+		Employee bean = new Employee();
+		setter.setAllProperties(bean, properties);
+		assertEquals(new Long(1L), bean.getId());
+		assertNull(bean.getName());
+		assertNull(bean.getAge());
+		properties.put(BeanPropertiesSetter.IGNORE_PROPERTY, new String[] {"id", "age"});
+		bean = new Employee();
+		setter.setAllProperties(bean, properties);
+		assertNull(bean.getId());
+		assertEquals("Test", bean.getName());
+		properties.put(BeanPropertiesSetter.IGNORE_PROPERTY, Arrays.asList("id", "name"));
+		bean = new Employee();
+		setter.setAllProperties(bean, properties);
+		assertNull(bean.getId());
+		assertEquals(new Integer(10), bean.getAge());
+	}
+
+	@Test
+	public void setAllPropertiesWithMultiValuedIgnoreEmpty() {
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("name", "");
+		properties.put("employed", null);
+		properties.put("age", 10);
+		properties.put(BeanPropertiesSetter.IGNORE_EMPTY_PROPERTY, new String[] {"name", "employed", "age"});
+		Employee bean = new Employee();
+		bean.setName("Kept");
+		bean.setEmployed(true);
+		setter.setAllProperties(bean, properties);
+		assertEquals("Kept", bean.getName());
+		assertTrue(bean.getEmployed());
+		assertEquals(new Integer(10), bean.getAge());
+	}
+
+	@Test
+	public void setAllPropertiesWithNonReadableProperty() {
+		Employee bean = new Employee();
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("other", "Test");
+		properties.put("name", "Test");
+		setter.setAllProperties(bean, properties);
+		assertEquals("Test", bean.getName());
+	}
+
+	@Test
+	public void setFactoryDiscardsPlans() {
+		Employee bean = new Employee();
+		HashMap<String, Object> properties = new HashMap<>();
+		properties.put("name", "Test");
+		BindingPlan plan = setter.getPlan(bean, properties.keySet());
+		setup();
+		assertNotSame(plan, setter.getPlan(bean, properties.keySet()));
+	}
+
 	@Test
 	public void setFactory() {
 		setter.setFactory(new BeanPropertySetterFactory());
 		assertNotNull(setter.getFactory());
 	}
-}
-
-class SimplePropertySetter implements PropertySetter {
 
-	@Override
-	public Object setProperty(Object bean, String property, Object value) {
-		try {
-			PropertyUtils.setProperty(bean, property, value);
-		} catch (Exception e) {
-			e.printStackTrace();
+	@Test
+	public void setAllPropertiesInBatch() {
+		// The generated setter converts the values, failing on the invalid ids
+		setter.setUseGeneratedSetters(true);
+		List<BindingItem<Employee>> items = new ArrayList<>();
+		for (long i = 0; i < 100; i++) {
+			HashMap<String, Object> properties = new HashMap<>();
+			properties.put("id", i % 10 == 3 ? "A" : String.valueOf(i));
+			properties.put("name", "Employee " + i);
+			items.add(BindingItem.of(new Employee(), properties));
 		}
-		return bean;
-	}
-
-	@Override
-	public Object unsetProperty(Object bean, String property, Object value) {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		BatchBindingResult<Employee> result;
 		try {
-			PropertyUtils.setProperty(bean, property, value);
-		} catch (Exception e) {
-			e.printStackTrace();
+			result = setter.setAllProperties(items, executor);
+		} finally {
+			executor.shutdown();
 		}
-		return bean;
+		assertEquals(100, result.getSize());
+		assertEquals(90, result.getSuccessCount());
+		assertTrue(result.hasFailures());
+		assertEquals(3, result.getFailures().get(0).getIndex());
+		assertEquals(93, result.getFailures().get(9).getIndex());
+		assertTrue(result.getFailures().get(0).getCause() instanceof ConversionException);
+		assertEquals(new Long(99L), items.get(99).getBean().getId());
+		assertEquals("Employee 50", items.get(50).getBean().getName());
+	}
 
+	@Test
+	public void setAllPropertiesInEmptyBatch() {
+		BatchBindingResult<Employee> result = setter.setAllProperties(new ArrayList<BindingItem<Employee>>(),
+				Runnable::run);
+		assertEquals(0, result.getSize());
+		assertFalse(result.hasFailures());
 	}
-}
\ No newline at end of file
+}
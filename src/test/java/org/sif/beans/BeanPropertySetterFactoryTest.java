@@ -0,0 +1,48 @@
+package org.sif.beans;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BeanPropertySetterFactoryTest {
+
+	BeanPropertySetterFactory<Employee, Long> factory = new BeanPropertySetterFactory<>();
+
+	SimplePropertySetter simple = new SimplePropertySetter();
+
+	@Before
+	public void setup() {
+		factory.setSimplePropertySetter(simple);
+	}
+
+	@Test
+	public void classifiesProperties() {
+		assertEquals(PropertyKind.SIMPLE, PropertyKind.of(Employee.class, "name"));
+		assertEquals(PropertyKind.SIMPLE, PropertyKind.of(Employee.class, "unknown"));
+		assertEquals(PropertyKind.NESTED, PropertyKind.of(Employee.class, "department.name"));
+		assertEquals(PropertyKind.MANY_TO_ONE, PropertyKind.of(Employee.class, "department"));
+		assertEquals(PropertyKind.ONE_TO_ONE, PropertyKind.of(Employee.class, "address"));
+		assertEquals(PropertyKind.ONE_TO_MANY, PropertyKind.of(Employee.class, "friends"));
+		assertTrue(PropertyKind.MANY_TO_ONE.isRelation());
+		assertFalse(PropertyKind.NESTED.isRelation());
+	}
+
+	@Test
+	public void usesTheSimpleSetterForKindsWithNoSetter() {
+		assertSame(simple, factory.getFor(new Employee(), "name"));
+		assertSame(simple, factory.getFor(new Employee(), "department"));
+	}
+
+	@Test
+	public void usesTheSetterOfTheKind() {
+		SimplePropertySetter relations = new SimplePropertySetter();
+		assertSame(simple, factory.getFor(new Employee(), "department"));
+		factory.setPropertySetter(PropertyKind.MANY_TO_ONE, relations);
+		assertSame(relations, factory.getFor(new Employee(), "department"));
+		assertSame(simple, factory.getFor(new Employee(), "friends"));
+		assertSame(simple, factory.getFor(new Employee(), "name"));
+		factory.setPropertySetter(PropertyKind.MANY_TO_ONE, null);
+		assertSame(simple, factory.getFor(new Employee(), "department"));
+	}
+}
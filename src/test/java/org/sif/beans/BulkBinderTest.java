@@ -0,0 +1,105 @@
+package org.sif.beans;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class BulkBinderTest {
+
+	BeanPropertiesSetter<Employee, Long> setter = new BeanPropertiesSetter<>();
+
+	BulkBinder<Employee, Long> binder = new BulkBinder<>();
+
+	@Before
+	public void setup() {
+		BeanPropertySetterFactory<Employee, Long> factory = new BeanPropertySetterFactory<>();
+		factory.setSimplePropertySetter(new SimplePropertySetter());
+		setter.setFactory(factory);
+		binder.setPropertiesSetter(setter);
+	}
+
+	private static Map<String, Object> row(long id) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", id);
+		row.put("name", "Employee " + id);
+		return row;
+	}
+
+	private static Stream<Map<String, Object>> rows(int count) {
+		return IntStream.range(0, count).mapToObj(i -> row(i));
+	}
+
+	@Test
+	public void bindStream() {
+		List<Employee> employees = binder.bind(Employee.class, rows(3)).collect(Collectors.toList());
+		assertEquals(3, employees.size());
+		assertEquals(new Long(2L), employees.get(2).getId());
+		assertEquals("Employee 2", employees.get(2).getName());
+	}
+
+	@Test
+	public void bindParallelStreamKeepsOrder() {
+		List<Employee> employees = binder.bind(Employee.class, rows(1000).parallel()).collect(Collectors.toList());
+		for (int i = 0; i < employees.size(); i++) {
+			assertEquals(new Long(i), employees.get(i).getId());
+		}
+	}
+
+	@Test
+	public void bindIterator() {
+		List<Employee> employees = binder.bind(Employee.class, rows(2).iterator(), false)
+				.collect(Collectors.toList());
+		assertEquals("Employee 1", employees.get(1).getName());
+	}
+
+	@Test
+	public void bindAllUnordered() {
+		List<Employee> employees = Collections.synchronizedList(new ArrayList<>());
+		ForkJoinPool pool = new ForkJoinPool(2);
+		binder.setPool(pool);
+		try {
+			binder.bindAll(Employee.class, rows(1000), employees::add, false);
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(1000, employees.size());
+		assertEquals(1000, employees.stream().map(Employee::getId).distinct().count());
+	}
+
+	@Test
+	public void bindAllOrdered() {
+		List<Employee> employees = new ArrayList<>();
+		binder.bindAll(Employee.class, rows(100), employees::add, true);
+		for (int i = 0; i < employees.size(); i++) {
+			assertEquals(new Long(i), employees.get(i).getId());
+		}
+	}
+
+	@Test
+	public void bindRowsWithDifferentKeys() {
+		Map<String, Object> other = new HashMap<>();
+		other.put("age", 10);
+		List<Employee> employees = binder.bind(Employee.class, Stream.of(row(1), other, row(2)))
+				.collect(Collectors.toList());
+		assertEquals("Employee 1", employees.get(0).getName());
+		assertEquals(new Integer(10), employees.get(1).getAge());
+		assertNull(employees.get(1).getName());
+		assertEquals("Employee 2", employees.get(2).getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bindWithoutPropertiesSetter() {
+		new BulkBinder<Employee, Long>().bind(Employee.class, rows(1));
+	}
+}
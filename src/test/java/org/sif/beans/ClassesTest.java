@@ -41,12 +41,59 @@ public class ClassesTest {
 		assertNull(coordinator);
 	}
 
+	@Test
+	public void testGetPropertyIgnoreNullMappedAndIndexedMethods() {
+		AttributeBean bean = new AttributeBean();
+		bean.setAttr("color", "red");
+		bean.setName(1, "b");
+		assertEquals("red", Classes.getPropertyIgnoreNull(bean, "attr(color)"));
+		assertEquals("b", Classes.getPropertyIgnoreNull(bean, "name[1]"));
+		assertNull(Classes.getPropertyIgnoreNull(bean, "child.attr(color)"));
+		bean.setChild(new AttributeBean());
+		bean.getChild().setName(0, "a");
+		assertEquals("a", Classes.getPropertyIgnoreNull(bean, "child.name[0]"));
+		assertTrue(Classes.readProperty(bean, "name[5]").isAbsent());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetPropertyIgnoreNullIndexOutOfBounds() {
+		Classes.getPropertyIgnoreNull(new AttributeBean(), "name[5]");
+	}
+
+	@Test
+	public void testReadProperty() {
+		Employee employee = new Employee();
+		assertTrue(Classes.readProperty(employee, "department.coordinator").isAbsent());
+		employee.setDepartment(new Department());
+		PropertyValue coordinator = Classes.readProperty(employee, "department.coordinator");
+		assertTrue(coordinator.isPresent());
+		assertNull(coordinator.getValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetPropertyIgnoreNullNullBean() {
+		Classes.getPropertyIgnoreNull(null, "name");
+	}
+
 	@Test
 	public void testGetNestedField() {
 		Field coordinator = Classes.getField(Employee.class, "department.coordinator");
 		assertNotNull(coordinator);
 	}
 
+	@Test
+	public void testGetNestedFieldIsCached() {
+		Field coordinator = Classes.getField(Employee.class, "department.coordinator");
+		assertSame(coordinator, Classes.getField(Employee.class, "department.coordinator"));
+		assertEquals(Employee.class, Classes.getFieldClass(Employee.class, "department.coordinator"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetNestedFieldOfCollection() {
+		// Unlike AnnotationUtil, the collection element type is not used
+		Classes.getField(Employee.class, "departments.name");
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testGetPropertyIgnoreNullNonExistent() {
 		Classes.getPropertyIgnoreNull(new Employee(), "other");
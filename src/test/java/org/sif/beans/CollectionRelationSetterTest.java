@@ -0,0 +1,108 @@
+package org.sif.beans;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CollectionRelationSetterTest {
+
+	InMemoryEntityLoader<Long> loader = new InMemoryEntityLoader<>();
+
+	CollectionRelationSetter<Employee, Long> setter = new CollectionRelationSetter<>();
+
+	@Before
+	public void setup() {
+		setter.setEntityLoader(loader);
+		for (long id = 0; id <= 5; id++) {
+			Department department = new Department();
+			department.setId(id);
+			loader.put(Department.class, id, department);
+		}
+	}
+
+	private static Set<Long> ids(Employee employee) {
+		return employee.getDepartments().stream().map(Department::getId).collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	@Test
+	public void appliesOnlyTheDelta() {
+		Employee employee = new Employee();
+		setter.setProperty(employee, "departments", "0,1,2");
+		assertEquals(new TreeSet<>(Arrays.asList(0L, 1L, 2L)), ids(employee));
+		Department kept = employee.getDepartments().stream().filter(d -> d.getId() == 1L).findFirst().get();
+		setter.setProperty(employee, "departments", Arrays.asList("1", "3", "3"));
+		assertEquals(new TreeSet<>(Arrays.asList(1L, 3L)), ids(employee));
+		assertTrue(employee.getDepartments().contains(kept));
+		assertEquals(2, loader.getLoadCount(Department.class));
+		setter.setProperty(employee, "departments", new long[] {1L, 3L});
+		assertEquals(2, loader.getLoadCount(Department.class));
+	}
+
+	@Test
+	public void emptyValueLeavesTheRelationUntouched() {
+		Employee employee = new Employee();
+		setter.setProperty(employee, "departments", "2");
+		setter.setProperty(employee, "departments", "");
+		assertEquals(new TreeSet<>(Arrays.asList(2L)), ids(employee));
+	}
+
+	@Test
+	public void missingEntityLeavesTheRelationUnchanged() {
+		Employee employee = new Employee();
+		setter.setProperty(employee, "departments", "1,2");
+		try {
+			setter.setProperty(employee, "departments", "1,99");
+			fail("The entity 99 doesn't exist");
+		} catch (IllegalArgumentException ex) {
+			assertEquals(new TreeSet<>(Arrays.asList(1L, 2L)), ids(employee));
+		}
+	}
+
+	@Test
+	public void missingEntityLeavesANullRelationNull() {
+		Employee employee = new Employee();
+		employee.setDepartments(null);
+		try {
+			setter.setProperty(employee, "departments", "1,99");
+			fail("The entity 99 doesn't exist");
+		} catch (IllegalArgumentException ex) {
+			assertNull(employee.getDepartments());
+		}
+		setter.setProperty(employee, "departments", "1");
+		assertEquals(new TreeSet<>(Arrays.asList(1L)), ids(employee));
+	}
+
+	@Test
+	public void dissociateRemovesTheGivenIds() {
+		Employee employee = new Employee();
+		setter.setProperty(employee, "departments", "0,1,2,3");
+		setter.unsetProperty(employee, "departments", "0,2");
+		assertEquals(new TreeSet<>(Arrays.asList(1L, 3L)), ids(employee));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsSingleRelations() {
+		setter.setProperty(new Employee(), "department", "1");
+	}
+
+	@Test
+	public void longIdIndex() {
+		IdIndex index = IdIndex.forType(Long.class, 2);
+		for (long id = -1000; id <= 1000; id++) {
+			assertTrue(index.add(id));
+		}
+		assertFalse(index.add(0L));
+		assertFalse(index.add(500));
+		assertTrue(index.contains(-1000L));
+		assertTrue(index.contains(0L));
+		assertFalse(index.contains(1001L));
+		assertFalse(index.contains(null));
+		assertEquals(2001, index.size());
+	}
+}
@@ -9,6 +9,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -169,6 +170,41 @@ public class CollectionUtilTest {
 		assertFalse(collectionUtil.isCollection(commaSeparatedList));
 		assertTrue(collectionUtil.isCollection("1,2"));
 	}
+
+	@Test
+	public void getFirstCollectionElementConvertsOnlyTheFirst() {
+		assertEquals(1, collectionUtil.getFirstCollectionElement(" 1 ,A", Integer.class));
+		assertEquals(1, collectionUtil.getFirstCollectionElement(Arrays.asList("1", "A"), Integer.class));
+		assertEquals(1L, collectionUtil.getFirstCollectionElement(new long[]{1L, 2L}));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void getFirstCollectionElementEmpty() {
+		collectionUtil.getFirstCollectionElement(new ArrayList<>());
+	}
+
+	@Test
+	public void toListWithElementType() {
+		assertEquals(Arrays.asList(1L, 2L), collectionUtil.asList("1,2", Long.class));
+		assertEquals(Arrays.asList("1", "2"), collectionUtil.asList(Arrays.asList(1, 2)));
+	}
+
+	@Test
+	public void testIsStringCommaSeparatedNumberArray() {
+		assertTrue(collectionUtil.isStringCommaSeparatedNumberArray(" 1, -2 ,,3"));
+		assertTrue(collectionUtil.isStringCommaSeparatedNumberArray(new StringBuilder("1.5,2e3,0x1F")));
+		assertFalse(collectionUtil.isStringCommaSeparatedNumberArray("1,08"));
+		assertFalse(collectionUtil.isStringCommaSeparatedNumberArray("1, ,2"));
+		assertFalse(collectionUtil.isStringCommaSeparatedNumberArray("1,,"));
+		assertFalse(collectionUtil.isStringCommaSeparatedNumberArray("1,A"));
+	}
+
+	@Test
+	public void testIsStringCommaSeparatedArray() {
+		assertTrue(collectionUtil.isStringCommaSeparatedArray("A, "));
+		assertFalse(collectionUtil.isStringCommaSeparatedArray(",A,"));
+		assertFalse(collectionUtil.isStringCommaSeparatedArray(null));
+	}
 }
 
 class TestList extends AbstractList {
@@ -0,0 +1,87 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.ConversionException;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+import org.junit.Test;
+import org.sif.beans.converters.IgnoreConversionException;
+import org.sif.beans.converters.IgnoreEmptyConverter;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ConverterRegistryTest {
+
+	@Test
+	public void defaultConvertersIgnoreEmptyValues() {
+		ConverterRegistry registry = new ConverterRegistry();
+		assertTrue(registry.lookup(Long.class) instanceof IgnoreEmptyConverter);
+		assertSame(registry.lookup(Long.class), registry.lookup(Long.TYPE));
+	}
+
+	@Test
+	public void unregisteredTypesUseTheGlobalConverters() {
+		assertNotNull(new ConverterRegistry().lookup(String.class));
+	}
+
+	@Test
+	public void globalConvertersComeBeforeTheStandardOnes() {
+		ConverterRegistry registry = new ConverterRegistry();
+		Converter standard = ConvertUtils.lookup(BigDecimal.class);
+		Converter global = new BigDecimalConverter(BigDecimal.ZERO);
+		ConvertUtils.register(global, BigDecimal.class);
+		try {
+			assertSame(global, registry.lookup(BigDecimal.class));
+			ConvertUtils.deregister(BigDecimal.class);
+			// The standard converter is used when there is no global one
+			Converter converter = registry.lookup(BigDecimal.class);
+			assertNotNull(converter);
+			assertEquals(new BigDecimal("1.5"), converter.convert(BigDecimal.class, "1.5"));
+		} finally {
+			ConvertUtils.register(standard, BigDecimal.class);
+		}
+	}
+
+	@Test
+	public void additionalConvertersReplaceTheDefaultOnes() {
+		Converter longConverter = new LongConverter(0L);
+		Map<Class<?>, Converter> converters = Collections.<Class<?>, Converter>singletonMap(Long.class, longConverter);
+		ConverterRegistry registry = new ConverterRegistry(converters);
+		assertSame(longConverter, registry.lookup(Long.class));
+		assertTrue(registry.lookup(Long.TYPE) instanceof IgnoreEmptyConverter);
+	}
+
+	@Test
+	public void converterUtilUsesItsOwnRegistry() {
+		PropertyValueConverterUtil converterUtil = new PropertyValueConverterUtil();
+		Map<Class<?>, Converter> converters = Collections.<Class<?>, Converter>singletonMap(Long.class,
+				new LongConverter(0L));
+		converterUtil.setConverterRegistry(new ConverterRegistry(converters));
+		assertEquals(0L, converterUtil.convert(Long.class, "A"));
+		// The other instances are not affected
+		try {
+			new PropertyValueConverterUtil().convert(Long.class, "A");
+			fail("Expected a ConversionException");
+		} catch (ConversionException ex) {
+			// expected
+		}
+	}
+
+	@Test(expected = IgnoreConversionException.class)
+	public void defaultRegistryIgnoresEmptyValues() {
+		new PropertyValueConverterUtil().convert(Long.class, "");
+	}
+
+	@Test
+	public void converterAndCollectionUtilsAreReused() {
+		CollectionUtil collectionUtil = new CollectionUtil();
+		PropertyValueConverterUtil converterUtil = collectionUtil.converterUtil();
+		assertSame(converterUtil, collectionUtil.converterUtil());
+		assertSame(collectionUtil, converterUtil.collectionUtil());
+	}
+}
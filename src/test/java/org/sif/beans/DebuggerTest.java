@@ -0,0 +1,55 @@
+package org.sif.beans;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DebuggerTest {
+
+	@Test
+	public void debug() {
+		assertEquals("(value is NULL!)", Debugger.debug(null));
+		assertEquals("(value is EMPTY!)", Debugger.debug(""));
+		assertEquals("(abc)", Debugger.debug("abc"));
+		assertEquals("([1, 2])", Debugger.debug(Arrays.asList(1, 2)));
+		assertEquals("([1, 2])", Debugger.debug(new int[] {1, 2}));
+	}
+
+	@Test
+	public void rendersOnlyUpToTheMaximumLength() {
+		List<Object> values = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			values.add(new Object() {
+				@Override
+				public String toString() {
+					return "element";
+				}
+			});
+		}
+		String rendered = Debugger.render(values);
+		assertTrue(rendered, rendered.length() < Debugger.MAX_LENGTH + 32);
+		assertTrue(rendered, rendered.endsWith("... (100000 elements)"));
+		char[] chars = new char[10_000];
+		Arrays.fill(chars, 'x');
+		assertEquals(Debugger.MAX_LENGTH + 3, Debugger.render(new String(chars)).length());
+	}
+
+	@Test
+	public void lazyRenderers() {
+		Object value = new Object() {
+			@Override
+			public String toString() {
+				throw new AssertionError("Rendered eagerly");
+			}
+		};
+		Object lazy = Debugger.lazy(value);
+		assertNotNull(lazy);
+		assertEquals("String", Debugger.typeName("abc").toString());
+		assertEquals("Integer", Debugger.typeName(Integer.class).toString());
+		assertEquals("(abc)", Debugger.lazy("abc").toString());
+	}
+}
@@ -0,0 +1,95 @@
+package org.sif.beans;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class GeneratedPropertiesSetterTest {
+
+	@Test
+	public void testForClass() {
+		GeneratedPropertiesSetter<Employee> setter = GeneratedPropertiesSetter.forClass(Employee.class);
+		assertNotNull(setter);
+		assertEquals(Employee.class, setter.getBeanClass());
+		assertSame(setter, GeneratedPropertiesSetter.forClass(Employee.class));
+	}
+
+	@Test
+	public void testForClassWithoutGeneratedSetter() {
+		assertNull(GeneratedPropertiesSetter.forClass(TestBean.class));
+		assertNull(GeneratedPropertiesSetter.forClass(String.class));
+	}
+
+	@Test
+	public void testHandlesOnlySimpleProperties() {
+		GeneratedPropertiesSetter<Employee> setter = GeneratedPropertiesSetter.forClass(Employee.class);
+		assertTrue(setter.handles("id"));
+		assertTrue(setter.handles("name"));
+		assertTrue(setter.handles("age"));
+		assertTrue(setter.handles("employed"));
+		assertFalse(setter.handles("department"));
+		assertFalse(setter.handles("friends"));
+		assertFalse(setter.handles("other"));
+	}
+
+	@Test
+	public void testSetAllPropertiesConverts() {
+		Employee bean = new Employee();
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("id", "1");
+		properties.put("age", 10);
+		properties.put("employed", "true");
+		new Employee_PropertiesSetter().setAllProperties(bean, properties);
+		assertEquals(new Long(1L), bean.getId());
+		assertEquals(new Integer(10), bean.getAge());
+		assertEquals(Boolean.TRUE, bean.getEmployed());
+	}
+
+	@Test
+	public void testSetAllPropertiesIgnoresEmptyValues() {
+		Employee bean = new Employee();
+		bean.setAge(10);
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("age", "");
+		new Employee_PropertiesSetter().setAllProperties(bean, properties);
+		assertEquals(new Integer(10), bean.getAge());
+	}
+
+	@Test
+	public void testSetAllPropertiesWithFallback() {
+		Employee bean = new Employee();
+		bean.setDepartment(new Department());
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("name", "Test");
+		properties.put(BeanPropertiesSetter.DISSOCIATE_PREFIX + "department", null);
+		properties.put(BeanPropertiesSetter.IGNORE_PROPERTY, "age");
+		properties.put("age", 10);
+		Employee_PropertiesSetter setter = new Employee_PropertiesSetter();
+		BeanPropertiesSetter fallback = new BeanPropertiesSetter();
+		BeanPropertySetterFactory factory = new BeanPropertySetterFactory();
+		factory.setSimplePropertySetter(new SimplePropertySetter());
+		fallback.setFactory(factory);
+		setter.setFallback(fallback);
+		setter.setAllProperties(bean, properties);
+		assertEquals("Test", bean.getName());
+		assertNull(bean.getDepartment());
+		assertNull(bean.getAge());
+	}
+
+	@Test
+	public void testSetPrimitiveProperties() {
+		Address bean = new Address();
+		bean.setNumber(5);
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("number", "");
+		properties.put("zipCode", "12345");
+		properties.put("latitude", "-1.5");
+		new Address_PropertiesSetter().setAllProperties(bean, properties);
+		assertEquals(5, bean.getNumber());
+		assertEquals(12345L, bean.getZipCode());
+		assertEquals(-1.5d, bean.getLatitude(), 0d);
+	}
+}
@@ -0,0 +1,189 @@
+package org.sif.beans;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PropertyPathTest {
+
+	@Test
+	public void testOfIsCached() {
+		assertSame(PropertyPath.of(Employee.class, "department.name"),
+				PropertyPath.of(Employee.class, "department.name"));
+	}
+
+	@Test
+	public void testGetNested() {
+		Employee employee = new Employee();
+		PropertyPath path = PropertyPath.of(Employee.class, "department.name");
+		assertTrue(path.isNested());
+		assertEquals(2, path.size());
+		assertEquals(String.class, path.getType());
+		assertNull(path.get(employee));
+		Department department = new Department();
+		department.setName("Sales");
+		employee.setDepartment(department);
+		assertEquals("Sales", path.get(employee));
+	}
+
+	@Test
+	public void testSetNested() {
+		Employee employee = new Employee();
+		employee.setDepartment(new Department());
+		PropertyPath.of(Employee.class, "department.name").set(employee, "Sales");
+		assertEquals("Sales", employee.getDepartment().getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetNestedNull() {
+		PropertyPath.of(Employee.class, "department.name").set(new Employee(), "Sales");
+	}
+
+	@Test
+	public void testIndexedAndKeyed() {
+		Team team = new Team();
+		Employee first = new Employee();
+		first.setName("First");
+		Employee second = new Employee();
+		second.setName("Second");
+		team.setMembers(new ArrayList<>(Arrays.asList(first, second)));
+		team.getAttributes().put("color", "blue");
+		team.setTags(new String[]{"a", "b"});
+		PropertyPath name = PropertyPath.of(Team.class, "members[1].name");
+		assertEquals(String.class, name.getType());
+		assertEquals("Second", name.get(team));
+		assertEquals("blue", PropertyPath.of(Team.class, "attributes(color)").get(team));
+		assertNull(PropertyPath.of(Team.class, "attributes(size)").get(team));
+		assertEquals("b", PropertyPath.of(Team.class, "tags[1]").get(team));
+
+		PropertyPath.of(Team.class, "members[0]").set(team, second);
+		PropertyPath.of(Team.class, "attributes(size)").set(team, "10");
+		PropertyPath.of(Team.class, "tags[0]").set(team, "c");
+		assertSame(second, team.getMembers().get(0));
+		assertEquals("10", team.getAttributes().get("size"));
+		assertEquals("c", team.getTags()[0]);
+	}
+
+	@Test
+	public void testIndexedCollection() {
+		Employee employee = new Employee();
+		Employee friend = new Employee();
+		friend.setName("Friend");
+		employee.getFriends().add(friend);
+		assertEquals("Friend", PropertyPath.of(Employee.class, "friends[0].name").get(employee));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIndexOutOfBounds() {
+		PropertyPath.of(Employee.class, "friends[0].name").get(new Employee());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownProperty() {
+		PropertyPath.of(Employee.class, "other").get(new Employee());
+	}
+
+	@Test
+	public void testMapValues() {
+		Map<String, Object> bean = new HashMap<>();
+		Employee employee = new Employee();
+		employee.setName("Test");
+		bean.put("employee", employee);
+		assertEquals("Test", PropertyPath.of(HashMap.class, "employee.name").get(bean));
+	}
+
+	@Test
+	public void testIsReadable() {
+		Employee employee = new Employee();
+		PropertyPath path = PropertyPath.of(Employee.class, "department.name");
+		assertFalse(path.isReadable(employee));
+		employee.setDepartment(new Department());
+		assertTrue(path.isReadable(employee));
+		assertFalse(PropertyPath.of(Employee.class, "department.other").isReadable(employee));
+	}
+
+	@Test
+	public void testReadTellsAbsentFromNull() {
+		Employee employee = new Employee();
+		PropertyValue absent = PropertyPath.of(Employee.class, "department.name").read(employee);
+		assertTrue(absent.isAbsent());
+		assertEquals(1, absent.getAbsentSegment());
+		assertEquals("none", absent.orElse("none"));
+		employee.setDepartment(new Department());
+		PropertyValue nullValue = PropertyPath.of(Employee.class, "department.name").read(employee);
+		assertTrue(nullValue.isPresent());
+		assertNull(nullValue.getValue());
+		assertNull(nullValue.orElse("none"));
+		employee.getDepartment().setName("Sales");
+		assertEquals("Sales", PropertyPath.of(Employee.class, "department.name").read(employee).getValue());
+	}
+
+	@Test
+	public void testReadIndexedAndKeyed() {
+		Team team = new Team();
+		team.getAttributes().put("color", null);
+		assertTrue(PropertyPath.of(Team.class, "members[0].name").read(team).isAbsent());
+		assertTrue(PropertyPath.of(Team.class, "tags[0]").read(team).isAbsent());
+		assertTrue(PropertyPath.of(Team.class, "attributes(size)").read(team).isAbsent());
+		assertTrue(PropertyPath.of(Team.class, "attributes(color)").read(team).isPresent());
+		assertEquals(0, PropertyPath.of(Team.class, "members[0].name").read(team).getAbsentSegment());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadUnknownProperty() {
+		Employee employee = new Employee();
+		employee.setDepartment(new Department());
+		PropertyPath.of(Employee.class, "department.other").read(employee);
+	}
+
+	@Test
+	public void testMalformed() {
+		for (String path : new String[]{"", "a..b", "a.", ".a", "a[x]", "a[1", "a(b", "a[1]b", "[1]"}) {
+			try {
+				PropertyPath.of(Employee.class, path);
+				fail("Expected the path to be rejected: " + path);
+			} catch (IllegalArgumentException ex) {
+				assertTrue(ex.getMessage().contains("Invalid property path"));
+			}
+		}
+	}
+
+	public static class Team {
+
+		private List<Employee> members = new ArrayList<>();
+
+		private Map<String, String> attributes = new HashMap<>();
+
+		private String[] tags;
+
+		public List<Employee> getMembers() {
+			return members;
+		}
+
+		public void setMembers(List<Employee> members) {
+			this.members = members;
+		}
+
+		public Map<String, String> getAttributes() {
+			return attributes;
+		}
+
+		public void setAttributes(Map<String, String> attributes) {
+			this.attributes = attributes;
+		}
+
+		public String[] getTags() {
+			return tags;
+		}
+
+		public void setTags(String[] tags) {
+			this.tags = tags;
+		}
+	}
+}
@@ -1,5 +1,10 @@
 package org.sif.beans;
 
+import org.apache.commons.beanutils.ConversionException;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.DoubleConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
 import org.junit.Test;
 import org.sif.beans.converters.IgnoreConversionException;
 
@@ -184,4 +189,175 @@ public class PropertyValueConverterUtilTest {
 		Object value = converterUtil.convert(Object.class, entity);
 		assertNull(value);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void convertToPrimitives() {
+		assertEquals(12, converterUtil.convertToInt(" 12 "));
+		assertEquals(-2147483648, converterUtil.convertToInt("-2147483648"));
+		assertEquals(12, converterUtil.convertToInt(new StringBuilder("+12")));
+		assertEquals(12, converterUtil.convertToInt(12L));
+		assertEquals(Long.MIN_VALUE, converterUtil.convertToLong(String.valueOf(Long.MIN_VALUE)));
+		assertEquals(Long.MAX_VALUE, converterUtil.convertToLong(String.valueOf(Long.MAX_VALUE)));
+		assertEquals(1.5d, converterUtil.convertToDouble("1.5"), 0d);
+		assertEquals(2d, converterUtil.convertToDouble(2), 0d);
+	}
+
+	@Test(expected = ConversionException.class)
+	public void convertToIntOverflow() {
+		converterUtil.convertToInt("2147483648");
+	}
+
+	@Test(expected = ConversionException.class)
+	public void convertToLongInvalid() {
+		converterUtil.convertToLong("1.0");
+	}
+
+	@Test(expected = ConversionException.class)
+	public void convertToIntSignOnly() {
+		converterUtil.convertToInt("-");
+	}
+
+	@Test(expected = IgnoreConversionException.class)
+	public void convertToDoubleEmpty() {
+		converterUtil.convertToDouble("");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void convertToIntNull() {
+		converterUtil.convertToInt(null);
+	}
+
+	@Test
+	public void convertCommaSeparatedValuesToLongList() {
+		List<Long> expected = Arrays.asList(1L, 2L, 3L);
+		assertEquals(expected, converterUtil.asList(Long.class, " 1 ,2,, 3 "));
+	}
+
+	@Test
+	public void convertCommaSeparatedValuesToIntegerList() {
+		List<Integer> expected = Arrays.asList(1, -2, 3);
+		assertEquals(expected, converterUtil.asList(Integer.class, " 1 ,-2,, 3 "));
+	}
+
+	@Test(expected = ConversionException.class)
+	public void convertCommaSeparatedValuesOutOfIntegerRange() {
+		converterUtil.valueListToCollection("1, 2147483648", List.class, Integer.class);
+	}
+
+	@Test
+	public void convertCommaSeparatedValuesWithReplacedConverter() {
+		Map<Class<?>, Converter> converters = Collections.singletonMap(Long.class, new LongConverter(0L));
+		converterUtil.setConverterRegistry(new ConverterRegistry(converters));
+		assertEquals(Arrays.asList(1L, 0L), converterUtil.valueListToCollection("1, A", List.class, Long.class));
+	}
+
+	@Test
+	public void convertPrimitivesWithReplacedConverters() {
+		Map<Class<?>, Converter> converters = new HashMap<>();
+		converters.put(Integer.TYPE, new IntegerConverter(0));
+		converters.put(Long.TYPE, new LongConverter(0L));
+		converters.put(Double.TYPE, new DoubleConverter(0d));
+		converterUtil.setConverterRegistry(new ConverterRegistry(converters));
+		assertEquals(0, converterUtil.convertToInt("A"));
+		assertEquals(0L, converterUtil.convertToLong("A"));
+		assertEquals(0d, converterUtil.convertToDouble("A"), 0d);
+		assertArrayEquals(new long[]{1L, 0L}, converterUtil.toLongArray("1, A"));
+	}
+
+	@Test
+	public void toLongArray() {
+		assertArrayEquals(new long[]{1L, -2L, 3L}, converterUtil.toLongArray(" 1 ,-2,, 3 "));
+		assertArrayEquals(new long[]{1L, 2L}, converterUtil.toLongArray(Arrays.asList("1", 2)));
+		assertArrayEquals(new long[]{1L, 2L}, converterUtil.toLongArray(new String[]{"1", "2"}));
+		assertArrayEquals(new long[]{7L}, converterUtil.toLongArray(7));
+		assertArrayEquals(new long[0], converterUtil.toLongArray(null));
+		assertArrayEquals(new long[0], converterUtil.toLongArray(",,"));
+	}
+
+	@Test(expected = ConversionException.class)
+	public void toLongArrayInvalidElement() {
+		converterUtil.toLongArray("1,A");
+	}
+
+	@Test(expected = IgnoreConversionException.class)
+	public void toLongArrayBlankElement() {
+		converterUtil.toLongArray("1, ,2");
+	}
+
+	@Test
+	public void primitiveArraysAsList() {
+		assertEquals(Arrays.asList(1L, 2L), converterUtil.asList(new long[]{1L, 2L}));
+		assertEquals(Arrays.asList(1.5d, 2d), converterUtil.asList(new double[]{1.5d, 2d}));
+		assertEquals(Arrays.asList((byte) 1, (byte) 2), converterUtil.asList(new byte[]{1, 2}));
+		assertEquals(Arrays.asList('a', 'b'), converterUtil.asList(new char[]{'a', 'b'}));
+		assertEquals(Arrays.asList(true, false), converterUtil.asList(new boolean[]{true, false}));
+	}
+
+	@Test
+	public void primitiveArrayListIsAView() {
+		long[] array = new long[]{1L, 2L};
+		List<?> list = converterUtil.asList(array);
+		array[0] = 3L;
+		assertEquals(3L, list.get(0));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void primitiveArrayListIsReadOnly() {
+		List<Long> list = (List<Long>) converterUtil.asList(new long[]{1L});
+		list.add(2L);
+	}
+
+	@Test
+	public void convertPrimitiveArrayToCollection() {
+		assertEquals(Arrays.asList(1L, 2L), converterUtil.asList(Long.class, new long[]{1L, 2L}));
+		assertEquals(Arrays.asList(1L, 2L), converterUtil.asList(Long.class, new int[]{1, 2}));
+	}
+
+	@Test
+	public void primitiveArraysToLongArray() {
+		long[] array = new long[]{1L, 2L};
+		assertSame(array, converterUtil.toLongArray(array));
+		assertArrayEquals(array, converterUtil.toLongArray(new int[]{1, 2}));
+		assertArrayEquals(array, converterUtil.toLongArray(new short[]{1, 2}));
+		assertArrayEquals(array, converterUtil.toLongArray(new double[]{1.9d, 2d}));
+	}
+
+	@Test
+	public void lazyListConvertsOnAccess() {
+		List<Long> list = (List<Long>) converterUtil.valueListToCollection("1, 2,A", List.class, Long.class, true);
+		assertTrue(list instanceof LazyCollection);
+		assertEquals(3, list.size());
+		assertEquals(Long.valueOf(2L), list.get(1));
+		try {
+			list.get(2);
+			fail("Expected a ConversionException");
+		} catch (ConversionException ex) {
+			// Only the invalid element fails
+		}
+	}
+
+	@Test
+	public void lazySetSkipsDuplicates() {
+		Set<Long> set = (Set<Long>) converterUtil.valueListToCollection(Arrays.asList("1", "2", "1"), Set.class,
+				Long.class, true);
+		assertFalse(set.isEmpty());
+		assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), set);
+		assertEquals(2, set.size());
+	}
+
+	@Test
+	public void materializeLazyCollection() {
+		LazyCollection<Long> list = (LazyCollection<Long>) converterUtil.valueListToCollection(new long[]{1L, 2L},
+				List.class, Long.class, true);
+		Collection<Long> materialized = list.materialize();
+		assertEquals(ArrayList.class, materialized.getClass());
+		assertEquals(Arrays.asList(1L, 2L), materialized);
+	}
+
+	@Test
+	public void lazyModeConvertsSingleValues() {
+		Collection<?> result = converterUtil.valueListToCollection("1", List.class, Long.class, true);
+		assertFalse(result instanceof LazyCollection);
+		assertEquals(Collections.singletonList(1L), result);
+	}
+}
@@ -0,0 +1,102 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.ConversionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class RecordingBindingMetricsTest {
+
+	RecordingBindingMetrics metrics = new RecordingBindingMetrics();
+
+	BeanPropertiesSetter<Employee, Long> setter = new BeanPropertiesSetter<>();
+
+	BeanPropertySetterFactory<Employee, Long> factory = new BeanPropertySetterFactory<>();
+
+	@Before
+	public void setup() {
+		factory.setSimplePropertySetter(new SimplePropertySetter());
+		factory.setMetrics(metrics);
+		setter.setFactory(factory);
+		setter.setMetrics(metrics);
+	}
+
+	@Test
+	public void recordsBindsAndProperties() {
+		for (int i = 0; i < 3; i++) {
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put("id", (long) i);
+			parameters.put("name", "Employee " + i);
+			setter.setAllProperties(new Employee(), parameters);
+		}
+		BindingMetricsSnapshot snapshot = metrics.snapshot();
+		assertEquals(3, snapshot.getBindCount());
+		assertEquals(6, snapshot.getPropertyCount());
+		assertEquals(2.0, snapshot.getPropertiesPerBind().getMean(), 0.0);
+		assertEquals(3, snapshot.getBindLatencyByClass().get(Employee.class).getCount());
+		assertEquals(3, snapshot.getPropertyLatency(Employee.class).get("name").getCount());
+		assertTrue(snapshot.getPropertyLatency(Department.class).isEmpty());
+		assertEquals(2.0 / 3, snapshot.getCacheHitRate(BindingMetrics.PLAN_CACHE), 1e-9);
+		assertEquals(1, snapshot.getCaches().get(BindingMetrics.PLAN_CACHE).getMisses());
+		assertTrue(snapshot.getBindsPerSecond() > 0);
+	}
+
+	@Test
+	public void recordsConversionFailures() {
+		PropertyValueConverterUtil<?> converterUtil = new PropertyValueConverterUtil<>();
+		converterUtil.setMetrics(metrics);
+		for (Object value : new Object[] {"x", "1.5"}) {
+			try {
+				converterUtil.convertToLong(value);
+				fail("Not a long: " + value);
+			} catch (ConversionException expected) {
+			}
+		}
+		try {
+			converterUtil.convert(Integer.class, "abc");
+			fail("Not an integer");
+		} catch (ConversionException expected) {
+		}
+		Map<Class<?>, Long> failures = metrics.snapshot().getConversionFailures();
+		assertEquals(new Long(2), failures.get(Long.TYPE));
+		assertEquals(new Long(1), failures.get(Integer.class));
+	}
+
+	@Test
+	public void histogramPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value);
+		}
+		histogram.record(-5);
+		BindingMetricsSnapshot.Histogram snapshot = histogram.snapshot();
+		assertEquals(1001, snapshot.getCount());
+		assertEquals(1000, snapshot.getMax());
+		assertEquals(0, snapshot.getPercentile(0.0));
+		long median = snapshot.getPercentile(0.5);
+		assertTrue(String.valueOf(median), median >= 500 && median < 1024);
+		assertEquals(1000, snapshot.getPercentile(1.0));
+	}
+
+	@Test
+	public void bindsPerSecond() {
+		AtomicLong time = new AtomicLong();
+		RecordingBindingMetrics metrics = new RecordingBindingMetrics(time::get);
+		for (int i = 0; i < 10; i++) {
+			metrics.recordBind(Employee.class, 1, 100L);
+		}
+		time.set(2_000_000_000L);
+		assertEquals(5.0, metrics.snapshot().getBindsPerSecond(), 1e-9);
+	}
+
+	@Test
+	public void noopIsDisabled() {
+		assertFalse(BindingMetrics.NOOP.isEnabled());
+		assertSame(BindingMetrics.NOOP, new BeanPropertiesSetter<>().getMetrics());
+	}
+}
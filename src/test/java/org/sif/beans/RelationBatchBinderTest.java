@@ -0,0 +1,143 @@
+package org.sif.beans;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class RelationBatchBinderTest {
+
+	InMemoryEntityLoader<Long> loader = new InMemoryEntityLoader<>();
+
+	RelationBatchBinder<Employee, Long> binder = new RelationBatchBinder<>();
+
+	@Before
+	public void setup() {
+		BeanPropertiesSetter<Employee, Long> setter = new BeanPropertiesSetter<>();
+		BeanPropertySetterFactory<Employee, Long> factory = new BeanPropertySetterFactory<>();
+		factory.setSimplePropertySetter(new SimplePropertySetter());
+		setter.setFactory(factory);
+		binder.setPropertiesSetter(setter);
+		binder.setEntityLoader(loader);
+		for (long id = 1; id <= 3; id++) {
+			Department department = new Department();
+			department.setId(id);
+			loader.put(Department.class, id, department);
+			Employee employee = new Employee();
+			employee.setId(id * 10);
+			loader.put(Employee.class, id * 10, employee);
+		}
+	}
+
+	private static Map<String, Object> parameters(Object... keyValues) {
+		Map<String, Object> parameters = new HashMap<>();
+		for (int i = 0; i < keyValues.length; i += 2) {
+			parameters.put((String) keyValues[i], keyValues[i + 1]);
+		}
+		return parameters;
+	}
+
+	@Test
+	public void loadsEachEntityTypeOnceForTheWholeBatch() {
+		List<BindingItem<Employee>> items = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			items.add(BindingItem.of(new Employee(),
+					parameters("name", "Employee " + i, "department", String.valueOf(i % 3 + 1), "friends", "10,20")));
+		}
+		BatchBindingResult<Employee> result = binder.bindAll(items);
+		assertFalse(result.getFailures().toString(), result.hasFailures());
+		assertEquals(1, loader.getLoadCount(Department.class));
+		assertEquals(1, loader.getLoadCount(Employee.class));
+		Employee first = items.get(0).getBean();
+		Employee fourth = items.get(3).getBean();
+		assertEquals("Employee 0", first.getName());
+		assertEquals(new Long(1L), first.getDepartment().getId());
+		assertSame(first.getDepartment(), fourth.getDepartment());
+		assertEquals(2, first.getFriends().size());
+	}
+
+	@Test
+	public void setAllPropertiesOfASingleBean() {
+		Employee employee = new Employee();
+		binder.setAllProperties(employee, parameters("department", 2L, "departments", Arrays.asList("1", "3")));
+		assertEquals(new Long(2L), employee.getDepartment().getId());
+		assertEquals(2, employee.getDepartments().size());
+		assertEquals(1, loader.getLoadCount(Department.class));
+	}
+
+	@Test
+	public void collectionRelationsAreUpdatedInPlace() {
+		Employee employee = new Employee();
+		Set<Department> departments = employee.getDepartments();
+		Department kept = department(1L);
+		departments.add(kept);
+		departments.add(department(2L));
+		binder.setAllProperties(employee, parameters("departments", "1,3"));
+		assertSame(departments, employee.getDepartments());
+		assertEquals(2, departments.size());
+		assertTrue(departments.stream().anyMatch(d -> d == kept));
+		assertTrue(departments.stream().anyMatch(d -> d.getId() == 3L));
+		// A missing entity leaves the collection untouched
+		BatchBindingResult<Employee> result = binder.bindAll(Collections.singletonList(
+				BindingItem.of(employee, parameters("departments", "3,99"))));
+		assertTrue(result.hasFailures());
+		assertEquals(2, departments.size());
+		assertTrue(departments.stream().anyMatch(d -> d == kept));
+	}
+
+	private static Department department(long id) {
+		Department department = new Department();
+		department.setId(id);
+		return department;
+	}
+
+	@Test
+	public void emptyAndNullValues() {
+		Employee employee = new Employee();
+		Department department = new Department();
+		employee.setDepartment(department);
+		binder.setAllProperties(employee, parameters("department", ""));
+		assertSame(department, employee.getDepartment());
+		binder.setAllProperties(employee, parameters("department", null));
+		assertNull(employee.getDepartment());
+	}
+
+	@Test
+	public void ignoredRelationsAreLeftToThePropertiesSetter() {
+		Employee employee = new Employee();
+		binder.setAllProperties(employee,
+				parameters("department", "1", BeanPropertiesSetter.IGNORE_PROPERTY, "department"));
+		assertNull(employee.getDepartment());
+		assertEquals(0, loader.getLoadCount(Department.class));
+	}
+
+	@Test
+	public void missingEntityFailsOnlyItsItem() {
+		List<BindingItem<Employee>> items = Arrays.asList(
+				BindingItem.of(new Employee(), parameters("department", "1")),
+				BindingItem.of(new Employee(), parameters("department", "99")));
+		BatchBindingResult<Employee> result = binder.bindAll(items);
+		assertEquals(1, result.getSuccessCount());
+		assertEquals(1, result.getFailures().get(0).getIndex());
+		assertTrue(result.getFailures().get(0).getCause() instanceof IllegalArgumentException);
+		assertEquals(new Long(1L), items.get(0).getBean().getDepartment().getId());
+	}
+
+	@Test
+	public void relationMetadata() {
+		RelationBatchBinder.Relation friends = RelationBatchBinder.relation(Employee.class, "friends");
+		assertTrue(friends.collection);
+		assertEquals(Employee.class, friends.targetType);
+		assertEquals(Long.class, friends.idType);
+		assertNull(RelationBatchBinder.relation(Employee.class, "name"));
+		assertNull(RelationBatchBinder.relation(Employee.class, "department.name"));
+	}
+}
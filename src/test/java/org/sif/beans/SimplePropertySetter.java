@@ -0,0 +1,27 @@
+package org.sif.beans;
+
+import org.apache.commons.beanutils.PropertyUtils;
+
+class SimplePropertySetter implements PropertySetter {
+
+	@Override
+	public Object setProperty(Object bean, String property, Object value) {
+		try {
+			PropertyUtils.setProperty(bean, property, value);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return bean;
+	}
+
+	@Override
+	public Object unsetProperty(Object bean, String property, Object value) {
+		try {
+			PropertyUtils.setProperty(bean, property, value);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return bean;
+
+	}
+}
@@ -0,0 +1,27 @@
+package org.sif.beans;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ThrottledWarningTest {
+
+	@Test
+	public void testLogsOncePerInterval() {
+		ThrottledWarning warning = new ThrottledWarning(LoggerFactory.getLogger(getClass()), 1, TimeUnit.HOURS);
+		assertTrue(warning.warn("Warning {} {}", 1, 2));
+		assertFalse(warning.warn("Warning {} {}", 1, 2));
+		assertFalse(warning.warn("Warning {} {}", 1, 2));
+	}
+
+	@Test
+	public void testLogsAgainAfterInterval() throws InterruptedException {
+		ThrottledWarning warning = new ThrottledWarning(LoggerFactory.getLogger(getClass()), 1, TimeUnit.MILLISECONDS);
+		assertTrue(warning.warn("Warning {} {}", 1, 2));
+		Thread.sleep(5);
+		assertTrue(warning.warn("Warning {} {}", 1, 2));
+	}
+}
@@ -0,0 +1,115 @@
+package org.sif.beans;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class TinyLfuRelationCacheTest {
+
+	private static Department department(long id) {
+		Department department = new Department();
+		department.setId(id);
+		return department;
+	}
+
+	@Test
+	public void countsHitsAndMisses() {
+		TinyLfuRelationCache cache = new TinyLfuRelationCache(10);
+		Department department = department(1L);
+		assertNull(cache.get(Department.class, 1L));
+		cache.put(Department.class, 1L, department);
+		assertSame(department, cache.get(Department.class, 1L));
+		assertNull(cache.get(Employee.class, 1L));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void staysWithinItsSize() {
+		TinyLfuRelationCache cache = new TinyLfuRelationCache(100);
+		for (long id = 0; id < 1000; id++) {
+			cache.put(Department.class, id, department(id));
+		}
+		assertEquals(100, cache.size());
+		assertEquals(900, cache.getEvictionCount());
+	}
+
+	@Test
+	public void frequentEntitiesSurviveAScan() {
+		TinyLfuRelationCache cache = new TinyLfuRelationCache(100);
+		for (long id = 0; id < 50; id++) {
+			cache.put(Department.class, id, department(id));
+		}
+		for (int i = 0; i < 5; i++) {
+			for (long id = 0; id < 50; id++) {
+				cache.get(Department.class, id);
+			}
+		}
+		for (long id = 1000; id < 2000; id++) {
+			cache.put(Department.class, id, department(id));
+		}
+		for (long id = 0; id < 50; id++) {
+			assertNotNull("Evicted " + id, cache.get(Department.class, id));
+		}
+	}
+
+	@Test
+	public void expiresAfterWrite() {
+		AtomicLong time = new AtomicLong();
+		TinyLfuRelationCache cache = new TinyLfuRelationCache(10, TimeUnit.SECONDS.toNanos(1), false, time::get);
+		cache.put(Department.class, 1L, department(1L));
+		time.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+		assertNotNull(cache.get(Department.class, 1L));
+		time.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+		assertNull(cache.get(Department.class, 1L));
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void softValues() {
+		TinyLfuRelationCache cache = new TinyLfuRelationCache(10, 0, TimeUnit.SECONDS, true);
+		Department department = department(1L);
+		cache.put(Department.class, 1L, department);
+		assertSame(department, cache.get(Department.class, 1L));
+	}
+
+	@Test
+	public void invalidate() {
+		TinyLfuRelationCache cache = new TinyLfuRelationCache(10);
+		cache.put(Department.class, 1L, department(1L));
+		cache.put(Department.class, 2L, department(2L));
+		cache.invalidate(Department.class, 1L);
+		assertNull(cache.get(Department.class, 1L));
+		cache.invalidateAll();
+		assertEquals(0, cache.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidSize() {
+		new TinyLfuRelationCache(0);
+	}
+
+	@Test
+	public void cachingEntityLoaderLoadsOnlyTheMissingEntities() {
+		InMemoryEntityLoader<Long> store = new InMemoryEntityLoader<>();
+		store.put(Department.class, 1L, department(1L));
+		store.put(Department.class, 2L, department(2L));
+		TinyLfuRelationCache cache = new TinyLfuRelationCache(10);
+		CachingEntityLoader<Long> loader = new CachingEntityLoader<>(store, cache);
+		Map<Long, Department> first = loader.loadAll(Department.class, Arrays.asList(1L, 3L));
+		assertEquals(1, first.size());
+		Map<Long, Department> second = loader.loadAll(Department.class, Arrays.asList(1L, 2L));
+		assertEquals(2, second.size());
+		assertSame(first.get(1L), second.get(1L));
+		assertEquals(2, store.getLoadCount(Department.class));
+		assertEquals(1, cache.getHitCount());
+		loader.loadAll(Department.class, Arrays.asList(1L, 2L));
+		assertEquals(2, store.getLoadCount(Department.class));
+	}
+}